@@ -0,0 +1,77 @@
+package maintainability;
+
+import java.util.concurrent.CountDownLatch;
+
+// Minimal timing harness shared by the *Benchmark classes in this package.
+// There is no build file here to pull in JMH, so each benchmark warms the JIT up
+// with a few untimed rounds and then reports the best of the timed rounds.
+final class Benchmarks {
+
+    static final int WARMUP_ROUNDS = 5;
+    static final int MEASURED_ROUNDS = 10;
+
+    // Written by every measured body so the JIT cannot drop the work as dead code.
+    static volatile long sink;
+
+    private Benchmarks() {
+    }
+
+    // Runs body repeatedly and prints the best time per operation and the
+    // operations per second; returns the best round in nanoseconds.
+    static long measure(String name, long operations, Runnable body) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            body.run();
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            body.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-40s %10.2f ns/op %14.0f ops/s%n", name, (double) best / operations,
+                operations * 1e9 / best);
+        return best;
+    }
+
+    // Runs body on the given number of threads at once (each thread calls it
+    // once per round) and prints the best aggregate throughput across all threads.
+    static long measureConcurrent(String name, int threads, long operationsPerThread, Runnable body) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            runConcurrently(threads, body);
+        }
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            best = Math.min(best, runConcurrently(threads, body));
+        }
+        long operations = operationsPerThread * threads;
+        System.out.printf("%-40s %3d thread(s) %14.0f ops/s%n", name, threads, operations * 1e9 / best);
+        return best;
+    }
+
+    private static long runConcurrently(int threads, Runnable body) {
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    body.run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        long begin = System.nanoTime();
+        start.countDown();
+        try {
+            done.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return System.nanoTime() - begin;
+    }
+}
@@ -0,0 +1,28 @@
+package maintainability;
+
+// OCP VIOLATION: Adding new shapes requires modifying this class
+// PROBLEM: Must add new methods for each shape type (Triangle, Pentagon, etc.)
+// IMPROVEMENT: Use polymorphism - each shape calculates its own area
+class CalculateService {
+
+    // VIOLATION: Method specific to Rectangle - breaks OCP
+    // ISSUE: Adding Triangle would require adding calculateTriangleArea()
+    // BETTER: Single calculateArea(Shape shape) method using polymorphism
+    public double calculateRectangleArea(double width, double height) {
+        return width * height;
+
+    }
+
+    // VIOLATION: Method specific to Circle - breaks OCP
+    // ISSUE: Each new shape type needs a new method here
+    // BETTER: Let each shape implement its own calculateArea() method
+    public double calculateCircleArea(double radius) {
+        return Math.PI * Math.pow(radius, 2);
+    }
+
+    // FIXED: One method for every shape, as in the answer above
+    public double calculateArea(Shape shape) {
+        return shape.calculateArea();
+    }
+
+}
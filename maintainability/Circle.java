@@ -0,0 +1,21 @@
+package maintainability;
+
+// FIXED: Implements Shape (final, as Shape is sealed); CalculateService's
+// per-kind methods are kept for existing callers
+final class Circle implements Shape {
+    private double radius;
+    public double area;
+
+    public Circle(double radius) {
+        this.radius = radius;
+    }
+
+    public double getRadius() {
+        return radius;
+    }
+
+    @Override
+    public double calculateArea() {
+        return Math.PI * (radius * radius); // same rounding as Math.PI * Math.pow(radius, 2)
+    }
+}
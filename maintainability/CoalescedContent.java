@@ -0,0 +1,60 @@
+package maintainability;
+
+import javax.swing.text.AbstractDocument.Content;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Position;
+import javax.swing.text.Segment;
+import javax.swing.undo.UndoableEdit;
+
+// A notification that stands in for several identical ones folded together by
+// NotificationDeduplicator. It reads exactly like the original Content, so
+// existing senders keep working; senders that care can check for this type and
+// render the count ("... (repeated 42 times)").
+final class CoalescedContent implements Content {
+    private final Content original;
+    private final int count;
+
+    CoalescedContent(Content original, int count) {
+        this.original = original;
+        this.count = count;
+    }
+
+    Content getOriginal() {
+        return original;
+    }
+
+    // Number of duplicate sends this message replaces
+    int getCount() {
+        return count;
+    }
+
+    @Override
+    public Position createPosition(int offset) throws BadLocationException {
+        return original.createPosition(offset);
+    }
+
+    @Override
+    public int length() {
+        return original.length();
+    }
+
+    @Override
+    public UndoableEdit insertString(int where, String str) throws BadLocationException {
+        throw new UnsupportedOperationException("Coalesced notifications are read-only");
+    }
+
+    @Override
+    public UndoableEdit remove(int where, int nitems) throws BadLocationException {
+        throw new UnsupportedOperationException("Coalesced notifications are read-only");
+    }
+
+    @Override
+    public String getString(int where, int len) throws BadLocationException {
+        return original.getString(where, len);
+    }
+
+    @Override
+    public void getChars(int where, int len, Segment txt) throws BadLocationException {
+        original.getChars(where, len, txt);
+    }
+}
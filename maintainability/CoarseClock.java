@@ -0,0 +1,78 @@
+package maintainability;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+// Wall clock that is read from a volatile field instead of the OS.
+// A background ticker refreshes the field every resolutionMillis, so
+// currentTimeMillis() costs one volatile read with no syscall and no allocation,
+// at the price of being up to one resolution (plus scheduling delay) behind.
+//
+// The ticker records how far behind the cached value actually was each time it
+// refreshed it, so the resolution-versus-accuracy tradeoff can be measured.
+// Not final so tests and benchmarks can substitute a simulated time source.
+class CoarseClock implements AutoCloseable {
+
+    private final long resolutionMillis;
+    private final ScheduledExecutorService ticker;
+    private volatile long nowMillis;
+
+    // Written only by the ticker thread, read by anyone
+    private volatile long ticks;
+    private volatile long maxLagMillis;
+    private volatile long totalLagMillis;
+
+    CoarseClock(long resolutionMillis) {
+        if (resolutionMillis <= 0) {
+            throw new IllegalArgumentException("Resolution must be positive. Provided: " + resolutionMillis);
+        }
+        this.resolutionMillis = resolutionMillis;
+        this.nowMillis = System.currentTimeMillis();
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock-" + resolutionMillis + "ms");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    long currentTimeMillis() {
+        return nowMillis;
+    }
+
+    long getResolutionMillis() {
+        return resolutionMillis;
+    }
+
+    long getTickCount() {
+        return ticks;
+    }
+
+    // Largest gap seen between the cached value and the real clock at refresh time:
+    // the worst-case error of any read made just before that refresh
+    long getMaxLagMillis() {
+        return maxLagMillis;
+    }
+
+    double getAverageLagMillis() {
+        long t = ticks;
+        return t == 0 ? 0 : (double) totalLagMillis / t;
+    }
+
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+    }
+
+    private void tick() {
+        long real = System.currentTimeMillis();
+        long lag = real - nowMillis;
+        nowMillis = real;
+        ticks++;
+        totalLagMillis += lag;
+        if (lag > maxLagMillis) {
+            maxLagMillis = lag;
+        }
+    }
+}
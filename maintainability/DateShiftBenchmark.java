@@ -0,0 +1,48 @@
+package maintainability;
+
+import java.util.Calendar;
+import java.util.Random;
+
+// Compares re-dating a column of rows one Calendar at a time with the bulk
+// epoch-day path behind Question01.nowPlusTime(int[], ...).
+// Run: java maintainability.DateShiftBenchmark [rows]
+class DateShiftBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 5_000_000;
+        int[] source = new int[rows];
+        Random random = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            source[i] = DateShiftEngine.of(1990 + random.nextInt(50), 1 + random.nextInt(12), 1 + random.nextInt(28));
+        }
+        int[] work = new int[rows];
+
+        Benchmarks.measure("per-row Calendar (+1m +2w +5d)", rows, () -> {
+            long checksum = 0;
+            for (int i = 0; i < rows; i++) {
+                int packed = DateShiftEngine.toPackedDate(source[i]);
+                Calendar cal = Calendar.getInstance();
+                cal.clear();
+                cal.set(DateShiftEngine.packedYear(packed), DateShiftEngine.packedMonth(packed) - 1,
+                        DateShiftEngine.packedDay(packed));
+                cal.add(Calendar.MONTH, 1);
+                cal.add(Calendar.WEEK_OF_YEAR, 2);
+                cal.add(Calendar.DAY_OF_MONTH, 5);
+                checksum += cal.get(Calendar.DAY_OF_MONTH);
+            }
+            Benchmarks.sink = checksum;
+        });
+
+        Benchmarks.measure("bulk epoch days (+1m +2w +5d)", rows, () -> {
+            System.arraycopy(source, 0, work, 0, rows);
+            Question01.nowPlusTime(work, 1, 2, 5);
+            Benchmarks.sink = work[rows - 1];
+        });
+
+        Benchmarks.measure("bulk epoch days (+2w +5d)", rows, () -> {
+            System.arraycopy(source, 0, work, 0, rows);
+            Question01.nowPlusTime(work, 0, 2, 5);
+            Benchmarks.sink = work[rows - 1];
+        });
+    }
+}
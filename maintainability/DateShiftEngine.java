@@ -0,0 +1,312 @@
+package maintainability;
+
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+// Allocation-free date arithmetic on epoch days (days since 1970-01-01).
+// Replaces the Calendar/SimpleDateFormat pair used in Question01: every method
+// is static, works on primitive values and keeps no state, so it is safe to
+// call from any number of threads without synchronization.
+//
+// Civil <-> epoch-day conversion uses the proleptic Gregorian algorithms from
+// Howard Hinnant's "chrono-Compatible Low-Level Date Algorithms", which is the
+// same calendar system java.time.LocalDate uses.
+final class DateShiftEngine {
+
+    // Returned by the parse methods instead of throwing ParseException, so a bad
+    // row on the hot path costs a comparison rather than an exception allocation.
+    static final int INVALID = Integer.MIN_VALUE;
+
+    // Length of the only supported pattern: dd/MM/yyyy
+    static final int PATTERN_LENGTH = 10;
+
+    // Below this many rows a bulk shift runs on the calling thread; splitting
+    // further costs more in task overhead than the arithmetic saves.
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    private static final int DAYS_0000_TO_1970 = 719468;
+    private static final int DAYS_PER_ERA = 146097;
+
+    private DateShiftEngine() {
+    }
+
+    // ---- Conversion -------------------------------------------------------
+
+    static int of(int year, int month, int dayOfMonth) {
+        long y = month <= 2 ? year - 1L : year;
+        long era = (y >= 0 ? y : y - 399) / 400;
+        long yoe = y - era * 400;
+        long doy = (153L * (month + (month > 2 ? -3 : 9)) + 2) / 5 + dayOfMonth - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return (int) (era * DAYS_PER_ERA + doe - DAYS_0000_TO_1970);
+    }
+
+    // Packs year, month and day into one int (year << 9 | month << 5 | day) so
+    // callers can decompose an epoch day once without allocating a holder object.
+    static int toPackedDate(int epochDay) {
+        long z = (long) epochDay + DAYS_0000_TO_1970;
+        long era = (z >= 0 ? z : z - (DAYS_PER_ERA - 1)) / DAYS_PER_ERA;
+        long doe = z - era * DAYS_PER_ERA;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        int day = (int) (doy - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yoe + era * 400 + (month <= 2 ? 1 : 0));
+        return (year << 9) | (month << 5) | day;
+    }
+
+    static int packedYear(int packedDate) {
+        return packedDate >> 9;
+    }
+
+    static int packedMonth(int packedDate) {
+        return (packedDate >>> 5) & 0xF;
+    }
+
+    static int packedDay(int packedDate) {
+        return packedDate & 0x1F;
+    }
+
+    static boolean isLeapYear(int year) {
+        return (year & 3) == 0 && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    static int lengthOfMonth(int year, int month) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    // ---- Arithmetic -------------------------------------------------------
+
+    // Same semantics as LocalDate.plusMonths: the day of month is clamped to the
+    // last valid day of the target month (31/01 + 1 month = 28/02 or 29/02).
+    static int plusMonths(int epochDay, int months) {
+        if (months == 0) {
+            return epochDay;
+        }
+        int packed = toPackedDate(epochDay);
+        long monthIndex = packedYear(packed) * 12L + (packedMonth(packed) - 1) + months;
+        int year = (int) Math.floorDiv(monthIndex, 12);
+        int month = Math.floorMod(monthIndex, 12) + 1;
+        int day = Math.min(packedDay(packed), lengthOfMonth(year, month));
+        return of(year, month, day);
+    }
+
+    static int plusWeeks(int epochDay, int weeks) {
+        return Math.addExact(epochDay, Math.multiplyExact(weeks, 7));
+    }
+
+    static int plusDays(int epochDay, int days) {
+        return Math.addExact(epochDay, days);
+    }
+
+    // Applies months first, then weeks and days, matching
+    // date.plusMonths(months).plusWeeks(weeks).plusDays(days) from the answer above.
+    static int shift(int epochDay, int months, int weeks, int days) {
+        return plusDays(plusWeeks(plusMonths(epochDay, months), weeks), days);
+    }
+
+    // ---- Bulk arithmetic --------------------------------------------------
+
+    // Shifts every element of epochDays in place, splitting large arrays
+    // across the common fork-join pool.
+    static void shiftAll(int[] epochDays, int months, int weeks, int days) {
+        shiftAll(epochDays, months, weeks, days, ForkJoinPool.commonPool());
+    }
+
+    static void shiftAll(int[] epochDays, int months, int weeks, int days, ForkJoinPool pool) {
+        if (epochDays.length < PARALLEL_THRESHOLD) {
+            shiftRange(epochDays, 0, epochDays.length, months, weeks, days);
+        } else {
+            pool.invoke(new IntShiftTask(epochDays, 0, epochDays.length, months, weeks, days));
+        }
+    }
+
+    // Shifts the remaining elements of the buffer (position to limit) in place;
+    // the buffer position is not moved.
+    static void shiftAll(LongBuffer epochDays, int months, int weeks, int days) {
+        shiftAll(epochDays, months, weeks, days, ForkJoinPool.commonPool());
+    }
+
+    static void shiftAll(LongBuffer epochDays, int months, int weeks, int days, ForkJoinPool pool) {
+        int from = epochDays.position();
+        int to = epochDays.limit();
+        if (to - from < PARALLEL_THRESHOLD) {
+            shiftRange(epochDays, from, to, months, weeks, days);
+        } else {
+            pool.invoke(new LongShiftTask(epochDays, from, to, months, weeks, days));
+        }
+    }
+
+    static void shiftRange(int[] epochDays, int from, int to, int months, int weeks, int days) {
+        if (months == 0) {
+            // Weeks and days collapse into one constant: a plain add loop the JIT can vectorize
+            int offset = plusDays(Math.multiplyExact(weeks, 7), days);
+            for (int i = from; i < to; i++) {
+                epochDays[i] = plusDays(epochDays[i], offset);
+            }
+        } else {
+            for (int i = from; i < to; i++) {
+                epochDays[i] = shift(epochDays[i], months, weeks, days);
+            }
+        }
+    }
+
+    static void shiftRange(LongBuffer epochDays, int from, int to, int months, int weeks, int days) {
+        for (int i = from; i < to; i++) {
+            epochDays.put(i, shift(Math.toIntExact(epochDays.get(i)), months, weeks, days));
+        }
+    }
+
+    private static final class IntShiftTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int[] epochDays;
+        private final int from;
+        private final int to;
+        private final int months;
+        private final int weeks;
+        private final int days;
+
+        IntShiftTask(int[] epochDays, int from, int to, int months, int weeks, int days) {
+            this.epochDays = epochDays;
+            this.from = from;
+            this.to = to;
+            this.months = months;
+            this.weeks = weeks;
+            this.days = days;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                shiftRange(epochDays, from, to, months, weeks, days);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new IntShiftTask(epochDays, from, mid, months, weeks, days),
+                    new IntShiftTask(epochDays, mid, to, months, weeks, days));
+        }
+    }
+
+    private static final class LongShiftTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final LongBuffer epochDays;
+        private final int from;
+        private final int to;
+        private final int months;
+        private final int weeks;
+        private final int days;
+
+        LongShiftTask(LongBuffer epochDays, int from, int to, int months, int weeks, int days) {
+            this.epochDays = epochDays;
+            this.from = from;
+            this.to = to;
+            this.months = months;
+            this.weeks = weeks;
+            this.days = days;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                shiftRange(epochDays, from, to, months, weeks, days);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new LongShiftTask(epochDays, from, mid, months, weeks, days),
+                    new LongShiftTask(epochDays, mid, to, months, weeks, days));
+        }
+    }
+
+    // ---- Parsing ----------------------------------------------------------
+
+    static int parse(CharSequence text) {
+        if (text == null || text.length() != PATTERN_LENGTH) {
+            return INVALID;
+        }
+        return parse(text, 0);
+    }
+
+    // Parses dd/MM/yyyy starting at offset without creating substrings.
+    static int parse(CharSequence text, int offset) {
+        if (offset < 0 || text.length() - offset < PATTERN_LENGTH
+                || text.charAt(offset + 2) != '/' || text.charAt(offset + 5) != '/') {
+            return INVALID;
+        }
+        int day = twoDigits(text.charAt(offset), text.charAt(offset + 1));
+        int month = twoDigits(text.charAt(offset + 3), text.charAt(offset + 4));
+        int year = fourDigits(text.charAt(offset + 6), text.charAt(offset + 7),
+                text.charAt(offset + 8), text.charAt(offset + 9));
+        return validated(year, month, day);
+    }
+
+    // Parses dd/MM/yyyy (ASCII) at an absolute index; the buffer position is not moved.
+    static int parse(ByteBuffer buffer, int offset) {
+        if (offset < 0 || buffer.limit() - offset < PATTERN_LENGTH
+                || buffer.get(offset + 2) != '/' || buffer.get(offset + 5) != '/') {
+            return INVALID;
+        }
+        int day = twoDigits(buffer.get(offset), buffer.get(offset + 1));
+        int month = twoDigits(buffer.get(offset + 3), buffer.get(offset + 4));
+        int year = fourDigits(buffer.get(offset + 6), buffer.get(offset + 7),
+                buffer.get(offset + 8), buffer.get(offset + 9));
+        return validated(year, month, day);
+    }
+
+    private static int validated(int year, int month, int day) {
+        if (year < 0 || month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return INVALID;
+        }
+        return of(year, month, day);
+    }
+
+    // Any non-digit makes the result negative, which validated() rejects.
+    private static int digit(int c) {
+        int d = c - '0';
+        return (d >= 0 && d <= 9) ? d : -10000;
+    }
+
+    private static int twoDigits(int c1, int c2) {
+        return digit(c1) * 10 + digit(c2);
+    }
+
+    private static int fourDigits(int c1, int c2, int c3, int c4) {
+        return twoDigits(c1, c2) * 100 + twoDigits(c3, c4);
+    }
+
+    // ---- Formatting -------------------------------------------------------
+
+    // Appends dd/MM/yyyy to a caller-owned builder so it can be reused across calls.
+    static StringBuilder format(int epochDay, StringBuilder out) {
+        int packed = toPackedDate(epochDay);
+        appendPadded(out, packedDay(packed), 2);
+        out.append('/');
+        appendPadded(out, packedMonth(packed), 2);
+        out.append('/');
+        appendPadded(out, packedYear(packed), 4);
+        return out;
+    }
+
+    private static void appendPadded(StringBuilder out, int value, int width) {
+        for (int limit = 10, i = 1; i < width; i++, limit *= 10) {
+            if (value < limit) {
+                out.append('0');
+            }
+        }
+        out.append(value);
+    }
+}
@@ -0,0 +1,68 @@
+package maintainability;
+
+// Columnar version of Question03.calculateDiscount for large pricing runs.
+// Applies the same rules as the improved calculateDiscount in the Question03
+// answer (0 <= discount <= 100, total >= 0, all values and the result finite),
+// but reports bad rows through a bitmask instead of throwing, so one bad line
+// item does not abort or slow down the whole batch.
+//
+// The arithmetic pass is a straight-line loop over primitive arrays that C2
+// auto-vectorizes into SIMD instructions; validation runs as a separate pass so
+// the arithmetic loop carries no branches.
+final class DiscountBatch {
+
+    private DiscountBatch() {
+    }
+
+    // One bit per row: bit (row & 63) of word (row >>> 6) is set when the row is invalid
+    static long[] newInvalidMask(int rows) {
+        return new long[(rows + 63) >>> 6];
+    }
+
+    static boolean isInvalid(long[] invalidMask, int row) {
+        return (invalidMask[row >>> 6] & (1L << row)) != 0;
+    }
+
+    // Writes totals[i] * discountRates[i] / 100 into discounts[i]. Invalid rows get
+    // 0 and their bit set in invalidMask (which is cleared first). Returns the
+    // number of invalid rows.
+    static int calculateDiscounts(double[] totals, double[] discountRates, double[] discounts, long[] invalidMask) {
+        int rows = totals.length;
+        if (discountRates.length != rows || discounts.length != rows) {
+            throw new IllegalArgumentException("Column lengths differ: totals=" + rows + ", discountRates="
+                    + discountRates.length + ", discounts=" + discounts.length);
+        }
+        if (invalidMask.length < (rows + 63) >>> 6) {
+            throw new IllegalArgumentException("Invalid mask too small for " + rows + " rows");
+        }
+
+        // Pass 1: arithmetic only (vectorizable)
+        for (int i = 0; i < rows; i++) {
+            discounts[i] = totals[i] * discountRates[i] / 100;
+        }
+
+        // Pass 2: validation, one mask word (64 rows) at a time
+        int invalidCount = 0;
+        for (int word = 0, base = 0; base < rows; word++, base += 64) {
+            long bits = 0;
+            int end = Math.min(base + 64, rows);
+            for (int i = base; i < end; i++) {
+                double total = totals[i];
+                double rate = discountRates[i];
+                // Written as negated ranges so NaN fails every comparison and lands here too
+                boolean invalid = !(total >= 0 && total < Double.POSITIVE_INFINITY)
+                        | !(rate >= 0 && rate <= 100)
+                        | !(discounts[i] < Double.POSITIVE_INFINITY);
+                bits |= (invalid ? 1L : 0L) << (i - base);
+            }
+            invalidMask[word] = bits;
+            if (bits != 0) {
+                invalidCount += Long.bitCount(bits);
+                for (long remaining = bits; remaining != 0; remaining &= remaining - 1) {
+                    discounts[base + Long.numberOfTrailingZeros(remaining)] = 0;
+                }
+            }
+        }
+        return invalidCount;
+    }
+}
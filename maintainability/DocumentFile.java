@@ -0,0 +1,326 @@
+package maintainability;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+// On-disk storage behind the Question10 PDFDocument and WordDocument, sized for
+// documents of hundreds of MB.
+//
+// open() maps nothing up front: it opens a FileChannel and maps one page of
+// pageBytes the first time a byte in it is read (a single mapping is limited to
+// 2 GB, and untouched pages cost no memory or I/O). Reads (get, read) may run on
+// several threads at once, as PrintSpooler workers do; open, save and close may not.
+//
+// save() never rewrites the target in place. New content is staged (from another
+// file or a buffer), written to a temporary file in the target's directory with
+// FileChannel.transferFrom / direct-buffer writes, forced to disk and renamed over
+// the target in one atomic move. A crash leaves either the old document or the
+// new one, never a mix; the stray temp file is the only residue. The temp file is
+// created like any new file (default permissions) and, when the target exists,
+// given the target's POSIX permissions first, so a save does not change them.
+final class DocumentFile implements AutoCloseable {
+
+    static final int DEFAULT_PAGE_BYTES = 64 << 20;
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final Path path;
+    private final int pageBytes;
+
+    // Open state
+    private FileChannel channel;
+    private AtomicReferenceArray<MappedByteBuffer> pages;
+    private long size;
+
+    // Staged content for the next save; at most one is set
+    private Path stagedFile;
+    private ByteBuffer stagedBuffer;
+
+    DocumentFile(Path path) {
+        this(path, DEFAULT_PAGE_BYTES);
+    }
+
+    DocumentFile(Path path, int pageBytes) {
+        if (path == null) {
+            throw new IllegalArgumentException("Path cannot be null");
+        }
+        if (pageBytes <= 0) {
+            throw new IllegalArgumentException("Page size must be positive. Provided: " + pageBytes);
+        }
+        this.path = path;
+        this.pageBytes = pageBytes;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    // Opens the document for reading; pages are mapped on first access
+    void open() throws IOException {
+        if (!Files.isRegularFile(path)) {
+            throw new FileNotFoundException(path.toString());
+        }
+        closeChannel();
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        size = channel.size();
+        pages = new AtomicReferenceArray<>((int) ((size + pageBytes - 1) / pageBytes));
+    }
+
+    boolean isOpen() {
+        return channel != null;
+    }
+
+    // Size of the opened content in bytes
+    long size() {
+        requireOpen();
+        return size;
+    }
+
+    byte get(long position) {
+        requireOpen();
+        if (position < 0 || position >= size) {
+            throw new IndexOutOfBoundsException("Position " + position + " outside document of " + size + " bytes");
+        }
+        return page((int) (position / pageBytes)).get((int) (position % pageBytes));
+    }
+
+    // Copies up to dst.remaining() bytes starting at position into dst and returns
+    // how many were copied (-1 at the end of the document)
+    int read(long position, ByteBuffer dst) {
+        requireOpen();
+        if (position < 0) {
+            throw new IndexOutOfBoundsException("Position cannot be negative. Provided: " + position);
+        }
+        if (position >= size) {
+            return -1;
+        }
+        int copied = 0;
+        while (dst.hasRemaining() && position < size) {
+            MappedByteBuffer page = page((int) (position / pageBytes));
+            int offset = (int) (position % pageBytes);
+            int length = Math.min(dst.remaining(), page.limit() - offset);
+            dst.put(dst.position(), page, offset, length);
+            dst.position(dst.position() + length);
+            position += length;
+            copied += length;
+        }
+        return copied;
+    }
+
+    // Sends the opened content to target without copying it through the heap
+    long transferTo(WritableByteChannel target) throws IOException {
+        requireOpen();
+        return transferAll(channel, size, target);
+    }
+
+    // Stages the content of source for the next save; source is read at save time
+    void stage(Path source) {
+        if (source == null) {
+            throw new IllegalArgumentException("Source cannot be null");
+        }
+        stagedFile = source;
+        stagedBuffer = null;
+    }
+
+    // Stages content from memory; the buffer's remaining bytes are written at save
+    // time. Direct buffers are written as is, heap buffers go through a copy.
+    void stage(ByteBuffer content) {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        stagedBuffer = content.duplicate();
+        stagedFile = null;
+    }
+
+    boolean hasStagedContent() {
+        return stagedFile != null || stagedBuffer != null;
+    }
+
+    // Atomically replaces the document with the staged content and reopens it if
+    // it was open. Without staged content an existing document is left as is.
+    // The old file is closed and its pages dropped before the move, since some
+    // platforms refuse to replace a file that is still open; if the save fails, the
+    // old file is opened again.
+    void save() throws IOException {
+        if (!hasStagedContent()) {
+            if (Files.isRegularFile(path)) {
+                return;
+            }
+            stage(ByteBuffer.allocate(0)); // first save of a new, empty document
+        }
+        boolean reopen = isOpen();
+        closeChannel(); // content is staged, so the write never reads the old file
+        try {
+            writeAtomically(path);
+        } catch (IOException | RuntimeException e) {
+            if (reopen) {
+                try {
+                    open();
+                } catch (IOException reopenFailure) {
+                    e.addSuppressed(reopenFailure);
+                }
+            }
+            throw e;
+        }
+        stagedFile = null;
+        stagedBuffer = null;
+        if (reopen) {
+            open();
+        }
+    }
+
+    // Atomically writes the current content (staged, else the document's file) to
+    // target, leaving this document's own file, staged content and open state
+    // untouched
+    void saveAs(Path target) throws IOException {
+        if (target == null) {
+            throw new IllegalArgumentException("Target cannot be null");
+        }
+        if (hasStagedContent() || isOpen()) {
+            writeAtomically(target);
+            return;
+        }
+        open();
+        try {
+            writeAtomically(target);
+        } finally {
+            closeChannel();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        closeChannel();
+    }
+
+    private void writeAtomically(Path target) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Path temp;
+        FileChannel out;
+        while (true) {
+            // Not Files.createTempFile: it makes the file owner-only (0600)
+            temp = directory.resolve("." + target.getFileName() + "."
+                    + Long.toHexString(ThreadLocalRandom.current().nextLong()) + TEMP_SUFFIX);
+            try {
+                out = FileChannel.open(temp, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+                break;
+            } catch (FileAlreadyExistsException e) {
+                // name taken, pick another
+            }
+        }
+        try {
+            try (FileChannel written = out) {
+                copyPermissions(target, temp);
+                writeContent(written);
+                written.force(true);
+            }
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        forceDirectory(directory);
+    }
+
+    private void writeContent(FileChannel out) throws IOException {
+        if (stagedFile != null) {
+            try (FileChannel in = FileChannel.open(stagedFile, StandardOpenOption.READ)) {
+                long total = in.size();
+                long position = 0;
+                while (position < total) {
+                    long written = out.transferFrom(in, position, total - position);
+                    if (written <= 0) {
+                        throw new IOException("Source " + stagedFile + " shrank while saving");
+                    }
+                    position += written;
+                }
+            }
+        } else if (stagedBuffer != null) {
+            ByteBuffer content = stagedBuffer.duplicate();
+            while (content.hasRemaining()) {
+                out.write(content);
+            }
+        } else {
+            transferAll(channel, size, out);
+        }
+    }
+
+    private static long transferAll(FileChannel in, long size, WritableByteChannel target) throws IOException {
+        long position = 0;
+        while (position < size) {
+            long sent = in.transferTo(position, size - position, target);
+            if (sent <= 0) {
+                throw new IOException("Document shrank or target stopped accepting bytes at " + position);
+            }
+            position += sent;
+        }
+        return size;
+    }
+
+    // Gives temp the permissions of an existing target. On file systems without
+    // POSIX permissions the replaced file's attributes are not carried over.
+    private static void copyPermissions(Path target, Path temp) throws IOException {
+        if (Files.exists(target) && Files.getFileAttributeView(target, PosixFileAttributeView.class) != null) {
+            Files.setPosixFilePermissions(temp, Files.getPosixFilePermissions(target));
+        }
+    }
+
+    // Makes the rename itself durable. Not every platform can open a directory;
+    // there the rename is as durable as the file system makes it.
+    static void forceDirectory(Path directory) {
+        try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+            dir.force(true);
+        } catch (IOException e) {
+            // best effort
+        }
+    }
+
+    private MappedByteBuffer page(int index) {
+        MappedByteBuffer page = pages.get(index);
+        if (page == null) {
+            long position = (long) index * pageBytes;
+            try {
+                page = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(pageBytes, size - position));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot map page " + index + " of " + path, e);
+            }
+            if (!pages.compareAndSet(index, null, page)) {
+                page = pages.get(index); // another reader mapped it first
+            }
+        }
+        return page;
+    }
+
+    private void requireOpen() {
+        if (channel == null) {
+            throw new IllegalStateException("Document is not open: " + path);
+        }
+    }
+
+    private void closeChannel() throws IOException {
+        if (channel != null) {
+            pages = null; // mappings are released when collected
+            FileChannel open = channel;
+            channel = null;
+            open.close();
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package maintainability;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Random;
+
+// Save and open throughput (MB/s) of DocumentFile against plain stream copying,
+// on a synthetic document. Both save paths give the same guarantees (temp file,
+// sync, atomic rename, directory sync), so the difference is the copy itself:
+// transferFrom lets the kernel move the bytes, the streams pull every byte
+// through a heap array. Without a dir the files go to a fresh temp directory that
+// is deleted at the end; pass a dir to keep the source and compare warm-cache
+// numbers across runs.
+// Run: java maintainability.DocumentSaveBenchmark [sizeMB] [dir]
+class DocumentSaveBenchmark {
+
+    private static final int STREAM_BUFFER_BYTES = 64 << 10;
+
+    public static void main(String[] args) throws IOException {
+        long sizeBytes = (args.length > 0 ? Long.parseLong(args[0]) : 512L) << 20;
+        boolean ownDir = args.length <= 1;
+        Path dir = ownDir ? Files.createTempDirectory("documents") : Path.of(args[1]);
+        Path source = dir.resolve("source.pdf");
+        Path target = dir.resolve("saved.pdf");
+        try {
+            run(dir, source, target, sizeBytes);
+        } finally {
+            Files.deleteIfExists(target);
+            if (ownDir) {
+                Files.deleteIfExists(source);
+                Files.deleteIfExists(dir);
+            }
+        }
+    }
+
+    private static void run(Path dir, Path source, Path target, long sizeBytes) throws IOException {
+        if (!Files.exists(source) || Files.size(source) != sizeBytes) {
+            writeSyntheticFile(source, sizeBytes);
+        }
+        System.out.printf("document %s, %d MB%n", source, sizeBytes >> 20);
+
+        report("DocumentFile.save (transferFrom)", sizeBytes, () -> {
+            DocumentFile document = new DocumentFile(target);
+            document.stage(source);
+            document.save();
+            return Files.size(target);
+        });
+
+        report("stream copy, 64 KB (sync + rename)", sizeBytes, () -> {
+            Path temp = Files.createTempFile(dir, ".saved.pdf", ".tmp");
+            byte[] buffer = new byte[STREAM_BUFFER_BYTES];
+            try (InputStream in = Files.newInputStream(source);
+                    FileOutputStream out = new FileOutputStream(temp.toFile())) {
+                for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                    out.write(buffer, 0, read);
+                }
+                out.getFD().sync();
+            }
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            DocumentFile.forceDirectory(dir);
+            return Files.size(target);
+        });
+
+        report("DocumentFile.open + read (mmap)", sizeBytes, () -> {
+            try (DocumentFile document = new DocumentFile(source)) {
+                document.open();
+                ByteBuffer buffer = ByteBuffer.allocateDirect(STREAM_BUFFER_BYTES);
+                long position = 0;
+                long checksum = 0;
+                for (int read = document.read(0, buffer); read > 0; read = document.read(position, buffer)) {
+                    position += read;
+                    checksum += buffer.get(0);
+                    buffer.clear();
+                }
+                Benchmarks.sink = checksum;
+                return position;
+            }
+        });
+
+        report("InputStream.read, 64 KB", sizeBytes, () -> {
+            byte[] buffer = new byte[STREAM_BUFFER_BYTES];
+            long total = 0;
+            long checksum = 0;
+            try (InputStream in = Files.newInputStream(source)) {
+                for (int read = in.read(buffer); read >= 0; read = in.read(buffer)) {
+                    total += read;
+                    checksum += buffer[0];
+                }
+            }
+            Benchmarks.sink = checksum;
+            return total;
+        });
+
+        // Lazy open: the time to the first byte does not grow with the document
+        long start = System.nanoTime();
+        try (DocumentFile document = new DocumentFile(source)) {
+            document.open();
+            Benchmarks.sink = document.get(document.size() - 1);
+        }
+        System.out.printf("%-40s %10.3f ms%n", "DocumentFile.open + last byte", (System.nanoTime() - start) / 1e6);
+    }
+
+    @FunctionalInterface
+    private interface Pass {
+        long run() throws IOException;
+    }
+
+    // Files this large take seconds per pass, so one warm-up and three timed passes
+    private static void report(String name, long bytes, Pass pass) throws IOException {
+        pass.run();
+        long best = Long.MAX_VALUE;
+        long copied = 0;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            copied = pass.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        if (copied != bytes) {
+            throw new IllegalStateException(name + " handled " + copied + " of " + bytes + " bytes");
+        }
+        System.out.printf("%-40s %10.1f MB/s%n", name, (bytes / 1048576.0) / (best / 1e9));
+    }
+
+    private static void writeSyntheticFile(Path file, long sizeBytes) throws IOException {
+        Random random = new Random(42);
+        byte[] block = new byte[1 << 20];
+        try (FileOutputStream out = new FileOutputStream(file.toFile())) {
+            for (long written = 0; written < sizeBytes; written += block.length) {
+                random.nextBytes(block);
+                out.write(block, 0, (int) Math.min(block.length, sizeBytes - written));
+            }
+        }
+    }
+}
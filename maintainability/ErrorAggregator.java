@@ -0,0 +1,237 @@
+package maintainability;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+// Error surface for the Question06 exception paths, replacing a System.err line
+// per failure. record() only counts: it bumps a lock-free counter for the
+// (exception type, source) pair and, for a sample of failures, parks the
+// exception itself in a preallocated ring buffer. It takes no lock and allocates
+// nothing, so the exception is the only object a failure costs.
+//
+// A background flusher periodically turns the counters and the sampled
+// exceptions into one text summary per interval; stack traces are only formatted
+// there, and only for the sampled exceptions.
+//
+// Sources are registered up front (registerSource) and addressed by index.
+// Exception types are registered on first sight in a fixed open-addressed table;
+// once it is full, further types are counted under "other".
+final class ErrorAggregator implements AutoCloseable {
+
+    private static final int MAX_TYPES = 64;
+    private static final int MAX_SOURCES = 8;
+    private static final int OTHER = MAX_TYPES; // counter row for types that did not fit
+
+    private final AtomicReferenceArray<Class<?>> types = new AtomicReferenceArray<>(MAX_TYPES);
+    private final String[] sources = new String[MAX_SOURCES];
+    private volatile int sourceCount;
+    private final AtomicLongArray counts = new AtomicLongArray((MAX_TYPES + 1) * MAX_SOURCES);
+    private final int sampleMask;
+
+    // Sample ring: writers claim a sequence number, then publish the slot by
+    // writing that number last; the flusher re-checks it to detect overwrites
+    private final Sample[] ring;
+    private final int ringMask;
+    private final AtomicLong claimed = new AtomicLong();
+    private final AtomicLong droppedSamples = new AtomicLong();
+
+    // Flusher state, only touched under the flush lock
+    private final long[] reported = new long[(MAX_TYPES + 1) * MAX_SOURCES];
+    private long readSequence;
+
+    private final Consumer<String> output;
+    private final ScheduledExecutorService flusher;
+
+    // sampleEvery and ringCapacity must be powers of two; flushMillis of 0 disables
+    // the background flusher (call flush() directly)
+    ErrorAggregator(int sampleEvery, int ringCapacity, long flushMillis, Consumer<String> output) {
+        if (Integer.bitCount(sampleEvery) != 1) {
+            throw new IllegalArgumentException("Sample interval must be a power of two. Provided: " + sampleEvery);
+        }
+        if (Integer.bitCount(ringCapacity) != 1) {
+            throw new IllegalArgumentException("Ring capacity must be a power of two. Provided: " + ringCapacity);
+        }
+        if (flushMillis < 0) {
+            throw new IllegalArgumentException("Flush interval cannot be negative. Provided: " + flushMillis);
+        }
+        if (output == null) {
+            throw new IllegalArgumentException("Output cannot be null");
+        }
+        this.sampleMask = sampleEvery - 1;
+        this.ring = new Sample[ringCapacity];
+        for (int i = 0; i < ringCapacity; i++) {
+            ring[i] = new Sample();
+        }
+        this.ringMask = ringCapacity - 1;
+        this.output = output;
+        if (flushMillis == 0) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "error-aggregator-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleAtFixedRate(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    // Returns the index to pass to record(); registering the same name twice
+    // returns the existing index
+    synchronized int registerSource(String name) {
+        for (int i = 0; i < sourceCount; i++) {
+            if (sources[i].equals(name)) {
+                return i;
+            }
+        }
+        if (sourceCount == MAX_SOURCES) {
+            throw new IllegalStateException("At most " + MAX_SOURCES + " sources can be registered");
+        }
+        sources[sourceCount] = name;
+        return sourceCount++;
+    }
+
+    // Hot path: lock-free and allocation-free
+    void record(int source, Throwable error) {
+        int row = typeRow(error.getClass());
+        long count = counts.incrementAndGet(row * MAX_SOURCES + source);
+        if (((count - 1) & sampleMask) == 0) { // first failure of the pair, then every sampleEvery-th
+            long sequence = claimed.getAndIncrement();
+            Sample slot = ring[(int) sequence & ringMask];
+            slot.published = -1;
+            slot.error = error;
+            slot.source = source;
+            slot.count = count;
+            slot.published = sequence;
+        }
+    }
+
+    long getCount(Class<? extends Throwable> type, int source) {
+        for (int i = 0; i < MAX_TYPES; i++) {
+            if (types.get(i) == type) {
+                return counts.get(i * MAX_SOURCES + source);
+            }
+        }
+        return 0;
+    }
+
+    long getTotalCount() {
+        long total = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    long getSampledCount() {
+        return claimed.get();
+    }
+
+    // Samples overwritten in the ring before a flush could report them
+    long getDroppedSampleCount() {
+        return droppedSamples.get();
+    }
+
+    // Writes the counts since the previous flush and the pending samples to the
+    // output; does nothing if no error was recorded in between
+    synchronized void flush() {
+        StringBuilder summary = new StringBuilder();
+        for (int row = 0; row <= MAX_TYPES; row++) {
+            for (int source = 0; source < sourceCount; source++) {
+                int index = row * MAX_SOURCES + source;
+                long count = counts.get(index);
+                long delta = count - reported[index];
+                if (delta > 0) {
+                    reported[index] = count;
+                    summary.append("  ").append(typeName(row)).append(" from ").append(sources[source]).append(": ")
+                            .append(delta).append(" (total ").append(count).append(")\n");
+                }
+            }
+        }
+
+        long end = claimed.get();
+        if (end - readSequence > ring.length) {
+            droppedSamples.addAndGet(end - readSequence - ring.length);
+            readSequence = end - ring.length;
+        }
+        for (; readSequence < end; readSequence++) {
+            Sample slot = ring[(int) readSequence & ringMask];
+            if (slot.published != readSequence) {
+                continue; // not published yet or already overwritten; counted above either way
+            }
+            Throwable error = slot.error;
+            int source = slot.source;
+            long count = slot.count;
+            if (slot.published != readSequence) {
+                droppedSamples.incrementAndGet();
+                continue;
+            }
+            slot.error = null; // do not keep the exception reachable after reporting it
+            summary.append("  sample #").append(count).append(" from ").append(sources[source]).append(": ");
+            appendStackTrace(summary, error);
+        }
+
+        if (summary.length() > 0) {
+            output.accept("Error summary:\n" + summary);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
+    }
+
+    // Identity probe on the exception class; a new type is claimed with a CAS
+    private int typeRow(Class<?> type) {
+        int start = System.identityHashCode(type) & (MAX_TYPES - 1);
+        for (int i = 0; i < MAX_TYPES; i++) {
+            int slot = (start + i) & (MAX_TYPES - 1);
+            Class<?> current = types.get(slot);
+            if (current == type) {
+                return slot;
+            }
+            if (current == null) {
+                if (types.compareAndSet(slot, null, type)) {
+                    return slot;
+                }
+                if (types.get(slot) == type) {
+                    return slot;
+                }
+            }
+        }
+        return OTHER;
+    }
+
+    private String typeName(int row) {
+        return row == OTHER ? "other" : types.get(row).getName();
+    }
+
+    // Follows at most a few causes, which also guards against cause cycles
+    private static void appendStackTrace(StringBuilder summary, Throwable error) {
+        for (int depth = 0; error != null && depth < 4; depth++) {
+            if (depth > 0) {
+                summary.append("    caused by ");
+            }
+            summary.append(error).append('\n');
+            for (StackTraceElement element : error.getStackTrace()) {
+                summary.append("      at ").append(element).append('\n');
+            }
+            error = error.getCause();
+        }
+    }
+
+    private static final class Sample {
+        volatile long published = -1;
+        Throwable error;
+        int source;
+        long count;
+    }
+}
@@ -0,0 +1,88 @@
+package maintainability;
+
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.atomic.LongAdder;
+
+// Allocation-free replacement for the "compare with new Date()" check in
+// Question05. "Expired" follows the improved answer: null, or strictly before now,
+// where now comes from a CoarseClock instead of a fresh Date per call.
+//
+// Dates within one clock resolution of now may get a stale answer; those checks
+// are counted as borderline so the cost of a coarser resolution shows up in
+// metrics rather than as silent misclassification.
+//
+// "Never expires" values at the ends of the range (Long.MAX_VALUE, Instant.MAX,
+// Instant.MIN) are answered without overflow: instants beyond the epoch-millis
+// range saturate to it, and are never borderline.
+final class ExpiryChecker {
+
+    private static final Instant MAX_MILLIS = Instant.ofEpochMilli(Long.MAX_VALUE);
+    private static final Instant MIN_MILLIS = Instant.ofEpochMilli(Long.MIN_VALUE);
+
+    private final CoarseClock clock;
+    private final LongAdder checks = new LongAdder();
+    private final LongAdder borderlineChecks = new LongAdder();
+
+    ExpiryChecker(CoarseClock clock) {
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        this.clock = clock;
+    }
+
+    boolean isExpired(long epochMillis) {
+        long now = clock.currentTimeMillis();
+        checks.increment();
+        if (isWithin(epochMillis, now, clock.getResolutionMillis())) {
+            borderlineChecks.increment();
+        }
+        return epochMillis < now;
+    }
+
+    boolean isExpired(Date date) {
+        return date == null || isExpired(date.getTime());
+    }
+
+    // toEpochMilli() would throw for instants outside the long millisecond range
+    boolean isExpired(Instant instant) {
+        if (instant == null) {
+            return true;
+        }
+        if (instant.isAfter(MAX_MILLIS)) {
+            return isExpired(Long.MAX_VALUE);
+        }
+        if (instant.isBefore(MIN_MILLIS)) {
+            return isExpired(Long.MIN_VALUE);
+        }
+        return isExpired(instant.toEpochMilli());
+    }
+
+    CoarseClock getClock() {
+        return clock;
+    }
+
+    long getCheckCount() {
+        return checks.sum();
+    }
+
+    // Checks whose answer could differ from one made against the real clock
+    long getBorderlineCount() {
+        return borderlineChecks.sum();
+    }
+
+    double getBorderlineRatio() {
+        long total = checks.sum();
+        return total == 0 ? 0 : (double) borderlineChecks.sum() / total;
+    }
+
+    // |epochMillis - now| <= resolution without overflow: a difference that does
+    // not fit in a long is far outside any resolution
+    private static boolean isWithin(long epochMillis, long now, long resolution) {
+        long distance = epochMillis - now;
+        if (((epochMillis ^ now) & (epochMillis ^ distance)) < 0) {
+            return false; // overflowed, as Math.subtractExact would report
+        }
+        return distance >= -resolution && distance <= resolution;
+    }
+}
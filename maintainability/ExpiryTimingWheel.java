@@ -0,0 +1,225 @@
+package maintainability;
+
+import java.util.Arrays;
+import java.util.Date;
+
+// Expiry index that replaces "scan every item and call Question05.isDateExpired".
+// Items are registered with a long id and an expiry time; advance(now) pushes the
+// ids whose expiry has passed to an ExpiryListener in batches.
+//
+// Hierarchical timing wheel: level 0 has 64 slots of one tick each, level L has
+// 64 slots of 64^L ticks each. An insert picks the lowest level whose span covers
+// the deadline and links the entry into one slot (O(1)). Each tick fires one
+// level-0 slot, and every 64^L ticks one level-L slot is cascaded down a level,
+// so the work per tick is O(1) amortised plus the entries that actually expire.
+//
+// Entries live in parallel primitive arrays (id, deadline tick, next index) with
+// an intrusive free list, so millions of entries cost 20 bytes each and no
+// per-entry objects. Not thread-safe: drive it from one thread (for example the
+// thread that owns the cache) or guard it externally.
+final class ExpiryTimingWheel {
+
+    @FunctionalInterface
+    interface ExpiryListener {
+        // ids[0..count) have expired; the array is reused after this call returns
+        void onExpired(long[] ids, int count);
+    }
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int NIL = -1;
+    private static final long CANCELLED = Long.MIN_VALUE;
+    // Deadline tick that is never reached; later expiries saturate to it
+    private static final long NEVER = Long.MAX_VALUE / 4;
+
+    private final long tickMillis;
+    private final int levels;
+    private final ExpiryListener listener;
+    private final int[] slotHeads;
+    private final long[] batch;
+    private int batchCount;
+
+    // Entry storage, indexed by handle
+    private long[] ids;
+    private long[] deadlines; // in ticks; CANCELLED once cancelled
+    private int[] next;
+    private int freeHead = NIL;
+    private int allocated;
+    private int size;
+
+    // Last tick that has been fully processed
+    private long currentTick;
+
+    ExpiryTimingWheel(long tickMillis, int levels, long startMillis, int batchSize, int initialCapacity,
+            ExpiryListener listener) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick must be positive. Provided: " + tickMillis);
+        }
+        if (levels < 1 || levels > 10) {
+            throw new IllegalArgumentException("Levels must be between 1 and 10. Provided: " + levels);
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be positive. Provided: " + batchSize);
+        }
+        if (listener == null) {
+            throw new IllegalArgumentException("Listener cannot be null");
+        }
+        this.tickMillis = tickMillis;
+        this.levels = levels;
+        this.listener = listener;
+        this.slotHeads = new int[levels * SLOTS];
+        Arrays.fill(slotHeads, NIL);
+        this.batch = new long[batchSize];
+        int capacity = Math.max(16, initialCapacity);
+        this.ids = new long[capacity];
+        this.deadlines = new long[capacity];
+        this.next = new int[capacity];
+        this.currentTick = Math.floorDiv(startMillis, tickMillis);
+    }
+
+    // Registers id to expire at expiryMillis and returns a handle for cancel().
+    // The id is delivered by the first advance() that completes the tick holding
+    // expiryMillis: never early, at most one tick late. An id added already
+    // expired is delivered once the next tick completes. Expiries too far out to
+    // count in ticks (up to Long.MAX_VALUE) never fire instead of wrapping around.
+    int add(long id, long expiryMillis) {
+        int handle = allocate();
+        ids[handle] = id;
+        long tick = Math.floorDiv(expiryMillis, tickMillis);
+        deadlines[handle] = tick >= NEVER ? NEVER : tick + 1;
+        place(handle);
+        size++;
+        return handle;
+    }
+
+    // Convenience for Date-based callers of Question05; null dates count as already expired
+    int add(long id, Date expiry) {
+        return add(id, expiry == null ? Long.MIN_VALUE / 2 : expiry.getTime());
+    }
+
+    // Stops a pending entry from firing. A handle is only valid until its entry
+    // has fired or been cancelled; after that it may be reused for a new entry.
+    void cancel(int handle) {
+        if (deadlines[handle] != CANCELLED) {
+            deadlines[handle] = CANCELLED;
+            size--;
+        }
+    }
+
+    // Processes every tick up to nowMillis and pushes the expired ids.
+    void advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        while (currentTick < targetTick) {
+            long tick = currentTick + 1;
+            for (int level = levels - 1; level >= 1; level--) {
+                if ((tick & ((1L << (SLOT_BITS * level)) - 1)) == 0) {
+                    cascade(level, (int) (tick >>> (SLOT_BITS * level)) & SLOT_MASK);
+                }
+            }
+            int slot = (int) tick & SLOT_MASK;
+            int head = slotHeads[slot];
+            slotHeads[slot] = NIL;
+            currentTick = tick; // inserts made by the listener now land in later slots
+            fire(head, tick);
+        }
+        flushBatch();
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getTickMillis() {
+        return tickMillis;
+    }
+
+    // Bytes held by entry storage (allocated capacity, not just live entries)
+    long getFootprintBytes() {
+        return (long) ids.length * (Long.BYTES + Long.BYTES + Integer.BYTES) + (long) slotHeads.length * Integer.BYTES;
+    }
+
+    private void fire(int head, long tick) {
+        int handle = head;
+        while (handle != NIL) {
+            int following = next[handle];
+            long deadline = deadlines[handle];
+            if (deadline == CANCELLED) {
+                release(handle);
+            } else if (deadline > tick) {
+                place(handle); // was clamped to the wheel's horizon
+            } else {
+                batch[batchCount++] = ids[handle];
+                release(handle);
+                size--;
+                if (batchCount == batch.length) {
+                    flushBatch();
+                }
+            }
+            handle = following;
+        }
+    }
+
+    private void cascade(int level, int slot) {
+        int index = level * SLOTS + slot;
+        int handle = slotHeads[index];
+        slotHeads[index] = NIL;
+        while (handle != NIL) {
+            int following = next[handle];
+            if (deadlines[handle] == CANCELLED) {
+                release(handle);
+            } else {
+                place(handle);
+            }
+            handle = following;
+        }
+    }
+
+    // Links the entry into the lowest level whose span reaches its deadline.
+    // A level-L slot is visited once per 64^(L+1) ticks, so the entry is only
+    // safe there if the deadline is within that span of the current tick.
+    private void place(int handle) {
+        long deadline = Math.max(deadlines[handle], currentTick + 1);
+        long delta = deadline - currentTick;
+        int level = 0;
+        while (level < levels - 1 && delta > 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        long horizon = 1L << (SLOT_BITS * (level + 1));
+        if (delta > horizon) {
+            deadline = currentTick + horizon; // beyond the top level: re-placed when reached
+        }
+        int index = level * SLOTS + ((int) (deadline >>> (SLOT_BITS * level)) & SLOT_MASK);
+        next[handle] = slotHeads[index];
+        slotHeads[index] = handle;
+    }
+
+    private void flushBatch() {
+        if (batchCount > 0) {
+            int count = batchCount;
+            batchCount = 0;
+            listener.onExpired(batch, count);
+        }
+    }
+
+    private int allocate() {
+        if (freeHead != NIL) {
+            int handle = freeHead;
+            freeHead = next[handle];
+            return handle;
+        }
+        if (allocated == ids.length) {
+            int capacity = ids.length << 1;
+            ids = Arrays.copyOf(ids, capacity);
+            deadlines = Arrays.copyOf(deadlines, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return allocated++;
+    }
+
+    private void release(int handle) {
+        deadlines[handle] = CANCELLED;
+        next[handle] = freeHead;
+        freeHead = handle;
+    }
+}
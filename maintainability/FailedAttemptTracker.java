@@ -0,0 +1,363 @@
+package maintainability;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+// Counts failed PIN validations per person so PinValidationService can refuse
+// further attempts before doing any hashing once a threshold is reached.
+//
+// Two structures, both of fixed size, so millions of distinct ids (or an
+// attacker cycling through random ids) cannot grow them, and neither takes a lock:
+//   - a count-min sketch of DEPTH rows of AtomicLongArray slots. A collision can
+//     only over-count, so an id whose sketch estimate is below the threshold is
+//     certainly not locked out; this answers almost every check.
+//   - an exact table of per-id counters: an open-addressed AtomicLongArray of ids
+//     with a parallel AtomicLongArray of counters, both of maxTrackedIds slots
+//     (rounded up to a power of two). An id lives in one of the PROBES slots
+//     after its home slot. Lockout is decided from this table, so failures
+//     against other ids cannot lock an innocent person out. A new id takes a free
+//     slot, else the slot whose id has the fewest recent failures; an id at or
+//     over the threshold is never displaced, so spraying failures over random
+//     ids cannot reset an id under attack. If every slot of the window holds
+//     such an id, the new id falls back to its sketch estimate (fails closed).
+// Hashes are seeded per instance, so nobody can pick ids that crowd a victim.
+// recordSuccess() clears an id's exact count after a correct PIN.
+//
+// Each sketch slot and table counter packs a sliding-window counter into one
+// long, updated with a CAS:
+//   bit  63      BUSY: the table slot is being handed to another id
+//   bits 56..62  table slot generation, bumped on every handover
+//   bits 32..55  window number (time / windowMillis, low 24 bits)
+//   bits 16..31  failures in the previous window
+//   bits  0..15  failures in the current window
+// The estimate weights the previous window by how much of it still overlaps the
+// sliding window, so counts decay smoothly instead of resetting at a boundary.
+// A table update reads the counter, checks the slot still holds its id and CASes
+// the counter; the generation makes that CAS fail if the slot changed hands in
+// between. Concurrent validations only contend when they hit the same slot.
+final class FailedAttemptTracker {
+
+    private static final int DEPTH = 2;
+    private static final int PROBES = 8;
+    private static final long EMPTY = PinCredentialStore.EMPTY; // never enrolled, so never tracked
+
+    private static final int PREVIOUS_SHIFT = 16;
+    private static final int WINDOW_SHIFT = 32;
+    private static final int GENERATION_SHIFT = 56;
+    private static final long COUNT_MASK = (1L << 16) - 1;
+    private static final long WINDOW_MASK = (1L << 24) - 1;
+    private static final long GENERATION_MASK = (1L << 7) - 1;
+    private static final long BUSY = Long.MIN_VALUE;
+
+    private final AtomicLongArray[] rows = new AtomicLongArray[DEPTH];
+    private final int slotMask;
+    private final AtomicLongArray ids;
+    private final AtomicLongArray counters;
+    private final int tableMask;
+    private final long seed = ThreadLocalRandom.current().nextLong();
+    private final long windowMillis;
+    private final int threshold;
+    private final LongSupplier clock;
+
+    FailedAttemptTracker(int slotsPerRow, int maxTrackedIds, long windowMillis, int threshold, LongSupplier clock) {
+        if (slotsPerRow <= 0 || Integer.bitCount(slotsPerRow) != 1) {
+            throw new IllegalArgumentException("Slots per row must be a positive power of two. Provided: " + slotsPerRow);
+        }
+        if (maxTrackedIds < PROBES || maxTrackedIds > 1 << 30) {
+            throw new IllegalArgumentException("Max tracked ids must be between " + PROBES + " and " + (1 << 30)
+                    + ". Provided: " + maxTrackedIds);
+        }
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Window must be positive. Provided: " + windowMillis);
+        }
+        if (threshold <= 0 || threshold > COUNT_MASK) {
+            throw new IllegalArgumentException("Threshold must be between 1 and " + COUNT_MASK + ". Provided: " + threshold);
+        }
+        if (clock == null) {
+            throw new IllegalArgumentException("Clock cannot be null");
+        }
+        for (int i = 0; i < DEPTH; i++) {
+            rows[i] = new AtomicLongArray(slotsPerRow);
+        }
+        int tableSize = Integer.highestOneBit(maxTrackedIds - 1) << 1;
+        this.ids = new AtomicLongArray(tableSize);
+        this.counters = new AtomicLongArray(tableSize);
+        for (int i = 0; i < tableSize; i++) {
+            ids.set(i, EMPTY);
+        }
+        this.tableMask = tableSize - 1;
+        this.slotMask = slotsPerRow - 1;
+        this.windowMillis = windowMillis;
+        this.threshold = threshold;
+        this.clock = clock;
+    }
+
+    FailedAttemptTracker(int slotsPerRow, int maxTrackedIds, long windowMillis, int threshold) {
+        this(slotsPerRow, maxTrackedIds, windowMillis, threshold, System::currentTimeMillis);
+    }
+
+    void recordFailure(long personId) {
+        long now = clock.getAsLong();
+        long window = now / windowMillis;
+        for (int row = 0; row < DEPTH; row++) {
+            AtomicLongArray slots = rows[row];
+            int index = slotIndex(personId, row);
+            long current;
+            long updated;
+            do {
+                current = slots.get(index);
+                updated = increment(roll(current, window));
+            } while (current != updated && !slots.compareAndSet(index, current, updated));
+        }
+        if (personId == EMPTY) {
+            return;
+        }
+        int home = homeSlot(personId);
+        while (true) {
+            int slot = find(personId, home);
+            if (slot >= 0 ? incrementExact(slot, personId, window) : insert(personId, home, now, window)) {
+                return;
+            }
+        }
+    }
+
+    // A correct PIN clears the person's failures. The sketch cannot be decremented,
+    // but it is only a filter: the exact count decides.
+    void recordSuccess(long personId) {
+        if (personId == EMPTY || estimateFailures(personId) == 0) {
+            return; // the sketch never under-counts, so there is nothing to clear
+        }
+        int slot = find(personId, homeSlot(personId));
+        if (slot < 0) {
+            return;
+        }
+        while (true) {
+            long current = counters.get(slot);
+            if ((current & BUSY) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (ids.get(slot) != personId) {
+                return; // handed to another id, so nothing of ours is left
+            }
+            long cleared = current & (GENERATION_MASK << GENERATION_SHIFT);
+            if (current == cleared || counters.compareAndSet(slot, current, cleared)) {
+                return;
+            }
+        }
+    }
+
+    // Sliding-window count of recent failures for personId since its last
+    // success; the sketch estimate if the table had no room for the id
+    int getFailureCount(long personId) {
+        if (personId == EMPTY || estimateFailures(personId) == 0) {
+            return 0;
+        }
+        long now = clock.getAsLong();
+        long window = now / windowMillis;
+        int home = homeSlot(personId);
+        while (true) {
+            int slot = find(personId, home);
+            if (slot < 0) {
+                return isFull(home, now, window) ? estimateFailures(personId) : 0;
+            }
+            long current = counters.get(slot);
+            if ((current & BUSY) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (ids.get(slot) == personId) {
+                return slidingCount(roll(current, window), now);
+            }
+        }
+    }
+
+    // Lock-free throughout; only ids the sketch puts at or over the threshold are
+    // confirmed against the exact table
+    boolean isLockedOut(long personId) {
+        return estimateFailures(personId) >= threshold && getFailureCount(personId) >= threshold;
+    }
+
+    int getThreshold() {
+        return threshold;
+    }
+
+    long getWindowMillis() {
+        return windowMillis;
+    }
+
+    // Ids currently held in the exact table
+    int getTrackedIdCount() {
+        int count = 0;
+        for (int i = 0; i <= tableMask; i++) {
+            if (ids.get(i) != EMPTY) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // Memory of the sketch plus the exact table, independent of how many ids are seen
+    long getFootprintBytes() {
+        return ((long) DEPTH * (slotMask + 1) + 2L * (tableMask + 1)) * Long.BYTES;
+    }
+
+    // Slot of personId in its probe window, or -1
+    private int find(long personId, int home) {
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = (home + probe) & tableMask;
+            if (ids.get(slot) == personId) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    // Adds a failure to the counter at slot; false if the slot changed hands first
+    private boolean incrementExact(int slot, long personId, long window) {
+        while (true) {
+            long current = counters.get(slot);
+            if ((current & BUSY) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            if (ids.get(slot) != personId) {
+                return false;
+            }
+            long updated = increment(roll(current, window));
+            if (current == updated || counters.compareAndSet(slot, current, updated)) {
+                return true;
+            }
+        }
+    }
+
+    // Gives personId, with one failure, a free slot of its window or the slot of
+    // the id with the fewest recent failures below the threshold. False if the
+    // window changed underneath and the caller must look again.
+    private boolean insert(long personId, int home, long now, long window) {
+        int victim = -1;
+        int victimProbe = -1;
+        long victimWord = 0;
+        int victimCount = threshold;
+        boolean sawBusy = false;
+        for (int probe = 0; probe < PROBES && victimCount >= 0; probe++) {
+            int slot = (home + probe) & tableMask;
+            long word = counters.get(slot); // before the id: a handover in between fails the CAS below
+            if ((word & BUSY) != 0) {
+                sawBusy = true;
+                continue;
+            }
+            int count = ids.get(slot) == EMPTY ? -1 : slidingCount(roll(word, window), now);
+            if (count < victimCount) {
+                victim = slot;
+                victimProbe = probe;
+                victimWord = word;
+                victimCount = count;
+            }
+        }
+        if (victim < 0) {
+            return !sawBusy; // every id in the window is at or over the threshold: untracked
+        }
+        long claim = BUSY | (hash(personId, DEPTH + 1) >>> 1);
+        if (!counters.compareAndSet(victim, victimWord, claim)) {
+            return false;
+        }
+        // Another thread may be inserting the same id into another slot. Of two
+        // claims, the one later in the window backs off; the earlier one waits for
+        // it to do so (it never waits itself, so this cannot deadlock).
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = (home + probe) & tableMask;
+            if (slot == victim) {
+                continue;
+            }
+            while (true) {
+                long word = counters.get(slot);
+                if (word == claim) {
+                    if (probe < victimProbe) {
+                        counters.set(victim, victimWord);
+                        return false;
+                    }
+                    Thread.onSpinWait();
+                    continue;
+                }
+                if (ids.get(slot) == personId) { // read after the counter, which is published last
+                    counters.set(victim, victimWord);
+                    return false;
+                }
+                break;
+            }
+        }
+        ids.set(victim, personId);
+        long generation = ((victimWord >>> GENERATION_SHIFT) + 1) & GENERATION_MASK;
+        counters.set(victim, (generation << GENERATION_SHIFT) | ((window & WINDOW_MASK) << WINDOW_SHIFT) | 1);
+        return true;
+    }
+
+    // True if no slot of the window could take a new id
+    private boolean isFull(int home, long now, long window) {
+        for (int probe = 0; probe < PROBES; probe++) {
+            int slot = (home + probe) & tableMask;
+            long word = counters.get(slot);
+            if ((word & BUSY) == 0
+                    && (ids.get(slot) == EMPTY || slidingCount(roll(word, window), now) < threshold)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Sketch estimate (never under-counts)
+    private int estimateFailures(long personId) {
+        long now = clock.getAsLong();
+        long window = now / windowMillis;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            long rolled = roll(rows[row].get(slotIndex(personId, row)), window);
+            estimate = Math.min(estimate, slidingCount(rolled, now));
+        }
+        return estimate;
+    }
+
+    // Current window plus the still-overlapping share of the previous one
+    private int slidingCount(long rolled, long now) {
+        double elapsedFraction = (double) (now % windowMillis) / windowMillis;
+        long previous = (rolled >>> PREVIOUS_SHIFT) & COUNT_MASK;
+        long current = rolled & COUNT_MASK;
+        return (int) (current + (long) Math.ceil(previous * (1 - elapsedFraction)));
+    }
+
+    // One more failure in the current window, saturating rather than wrapping
+    private static long increment(long rolled) {
+        return (rolled & COUNT_MASK) == COUNT_MASK ? rolled : rolled + 1;
+    }
+
+    // Moves a packed word forward to the given window, keeping its generation: one
+    // window later the current count becomes the previous one, two or more
+    // windows later both clear.
+    private static long roll(long packed, long window) {
+        long slotWindow = (packed >>> WINDOW_SHIFT) & WINDOW_MASK;
+        long target = window & WINDOW_MASK;
+        if (slotWindow == target) {
+            return packed;
+        }
+        long previous = ((slotWindow + 1) & WINDOW_MASK) == target ? packed & COUNT_MASK : 0;
+        return (packed & (GENERATION_MASK << GENERATION_SHIFT)) | (target << WINDOW_SHIFT)
+                | (previous << PREVIOUS_SHIFT);
+    }
+
+    private int slotIndex(long personId, int row) {
+        return (int) hash(personId, row) & slotMask;
+    }
+
+    private int homeSlot(long personId) {
+        return (int) hash(personId, DEPTH) & tableMask;
+    }
+
+    private long hash(long personId, int salt) {
+        long z = (personId ^ seed) + (salt + 1) * 0x9e3779b97f4a7c15L;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,82 @@
+package maintainability;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+// Local "printer" for PrintSpooler: each job becomes one file in a directory,
+// pages separated by a form feed. A job is written to <file>.part and renamed
+// when it completes, so a reader of the directory never sees half a job; an
+// aborted job's partial file is deleted.
+class FilePrinter implements Printer {
+    private static final byte FORM_FEED = '\f';
+
+    private final Path directory;
+    private final ByteBuffer separator = ByteBuffer.allocateDirect(1).put(0, FORM_FEED);
+    private FileChannel out;
+    private Path partial;
+    private Path target;
+    private long jobs;
+    private long pages;
+    private long bytes;
+
+    FilePrinter(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    @Override
+    public void startJob(String name, int pages) throws IOException {
+        jobs++;
+        target = directory.resolve(String.format("%06d-%s.prn", jobs, name.replaceAll("[^A-Za-z0-9._-]", "_")));
+        partial = target.resolveSibling(target.getFileName() + ".part");
+        out = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    @Override
+    public void printPage(int page, ByteBuffer content) throws IOException {
+        if (page > 0) {
+            separator.clear();
+            out.write(separator);
+        }
+        bytes += content.remaining();
+        while (content.hasRemaining()) {
+            out.write(content);
+        }
+        pages++;
+    }
+
+    @Override
+    public void endJob(boolean completed) throws IOException {
+        if (out == null) {
+            return; // startJob failed
+        }
+        try {
+            out.close();
+            if (completed) {
+                Files.move(partial, target, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                Files.deleteIfExists(partial);
+            }
+        } finally {
+            out = null;
+        }
+    }
+
+    // Path of the most recently started job's output
+    Path getLastJobPath() {
+        return target;
+    }
+
+    long getPageCount() {
+        return pages;
+    }
+
+    long getByteCount() {
+        return bytes;
+    }
+}
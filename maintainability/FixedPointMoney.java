@@ -0,0 +1,152 @@
+package maintainability;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Arrays;
+
+// Fixed-point alternative to the double total in Question03.
+// Amounts are long counts of minor units at a set scale (scale 2: 1999 = 19.99),
+// discount rates are int basis points (1 bp = 0.01%, so 15.5% = 1550 bp), and
+// the discount is computed with exact integer math and an explicit RoundingMode.
+//
+// Nothing on the calculation path throws: invalid input and overflow return the
+// INVALID sentinel, which callers check with a single comparison (the batch
+// method reports them through the same bitmask layout as DiscountBatch).
+final class FixedPointMoney {
+
+    // Never a legal amount: totals and discounts are non-negative
+    static final long INVALID = Long.MIN_VALUE;
+
+    static final int MAX_BASIS_POINTS = 10_000; // 100%
+
+    private static final long[] POWERS_OF_TEN = {
+            1L, 10L, 100L, 1_000L, 10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L };
+
+    private final int scale;
+    private final long unit;
+
+    FixedPointMoney(int scale) {
+        if (scale < 0 || scale >= POWERS_OF_TEN.length) {
+            throw new IllegalArgumentException("Scale must be between 0 and " + (POWERS_OF_TEN.length - 1)
+                    + ". Provided: " + scale);
+        }
+        this.scale = scale;
+        this.unit = POWERS_OF_TEN[scale];
+    }
+
+    int getScale() {
+        return scale;
+    }
+
+    // ---- Conversion (edges of the system, not the hot path) ---------------
+
+    long toMinorUnits(BigDecimal amount, RoundingMode roundingMode) {
+        try {
+            return amount.setScale(scale, roundingMode).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            return INVALID; // too large for a long, or inexact under UNNECESSARY
+        }
+    }
+
+    BigDecimal toBigDecimal(long minorUnits) {
+        return BigDecimal.valueOf(minorUnits, scale);
+    }
+
+    // Parses a decimal percentage such as "15.5" into basis points; INVALID if it
+    // has more than two decimals or is outside 0..100.
+    static long toBasisPoints(BigDecimal percent) {
+        try {
+            long bp = percent.setScale(2, RoundingMode.UNNECESSARY).unscaledValue().longValueExact();
+            return bp >= 0 && bp <= MAX_BASIS_POINTS ? bp : INVALID;
+        } catch (ArithmeticException e) {
+            return INVALID;
+        }
+    }
+
+    long toMinorUnits(long wholeUnits) {
+        long hi = Math.multiplyHigh(wholeUnits, unit);
+        long lo = wholeUnits * unit;
+        return (hi == 0 && lo >= 0) ? lo : INVALID;
+    }
+
+    // ---- Arithmetic -------------------------------------------------------
+
+    // total * basisPoints / 10000, rounded with roundingMode. Splitting total into
+    // quotient and remainder of 10000 keeps every intermediate product inside a
+    // long for any valid input, so the result is exact and never overflows.
+    static long discount(long totalMinorUnits, int basisPoints, RoundingMode roundingMode) {
+        if (totalMinorUnits < 0 || basisPoints < 0 || basisPoints > MAX_BASIS_POINTS) {
+            return INVALID;
+        }
+        long quotient = totalMinorUnits / MAX_BASIS_POINTS;
+        long remainder = totalMinorUnits % MAX_BASIS_POINTS;
+        long scaledRemainder = remainder * basisPoints; // < 10^8
+        long whole = quotient * basisPoints + scaledRemainder / MAX_BASIS_POINTS;
+        long fraction = scaledRemainder % MAX_BASIS_POINTS; // numerator over 10000
+        return fraction == 0 ? whole : round(whole, fraction, roundingMode);
+    }
+
+    // total - discount(total, basisPoints); cannot overflow for valid input.
+    static long discountedTotal(long totalMinorUnits, int basisPoints, RoundingMode roundingMode) {
+        long discount = discount(totalMinorUnits, basisPoints, roundingMode);
+        return discount == INVALID ? INVALID : totalMinorUnits - discount;
+    }
+
+    // Overflow-checked addition that returns INVALID instead of throwing.
+    static long add(long a, long b) {
+        if (a == INVALID || b == INVALID) {
+            return INVALID;
+        }
+        long sum = a + b;
+        return ((a ^ sum) & (b ^ sum)) < 0 ? INVALID : sum;
+    }
+
+    // Column form of discount(). Invalid rows get INVALID in discounts and their bit
+    // set in invalidMask (same layout as DiscountBatch.newInvalidMask). Returns the
+    // number of invalid rows.
+    static int discounts(long[] totalsMinorUnits, int[] basisPoints, long[] discounts, RoundingMode roundingMode,
+            long[] invalidMask) {
+        int rows = totalsMinorUnits.length;
+        if (basisPoints.length != rows || discounts.length != rows) {
+            throw new IllegalArgumentException("Column lengths differ: totals=" + rows + ", basisPoints="
+                    + basisPoints.length + ", discounts=" + discounts.length);
+        }
+        if (invalidMask.length < (rows + 63) >>> 6) {
+            throw new IllegalArgumentException("Invalid mask too small for " + rows + " rows");
+        }
+        Arrays.fill(invalidMask, 0L);
+        int invalidCount = 0;
+        for (int i = 0; i < rows; i++) {
+            long discount = discount(totalsMinorUnits[i], basisPoints[i], roundingMode);
+            discounts[i] = discount;
+            if (discount == INVALID) {
+                invalidMask[i >>> 6] |= 1L << i;
+                invalidCount++;
+            }
+        }
+        return invalidCount;
+    }
+
+    // Applies roundingMode to whole + fraction/10000 where 0 < fraction < 10000.
+    // Amounts are never negative here, so CEILING/FLOOR behave like UP/DOWN.
+    private static long round(long whole, long fraction, RoundingMode roundingMode) {
+        long half = MAX_BASIS_POINTS / 2;
+        switch (roundingMode) {
+            case UP:
+            case CEILING:
+                return whole + 1;
+            case DOWN:
+            case FLOOR:
+                return whole;
+            case HALF_UP:
+                return fraction >= half ? whole + 1 : whole;
+            case HALF_DOWN:
+                return fraction > half ? whole + 1 : whole;
+            case HALF_EVEN:
+                return (fraction > half || (fraction == half && (whole & 1) != 0)) ? whole + 1 : whole;
+            case UNNECESSARY:
+            default:
+                return INVALID;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package maintainability;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.swing.text.AbstractDocument.Content;
+
+// Fake sender that records every batch it receives instead of talking to a
+// mail or SMS gateway; OrderBatchBenchmark sends through it.
+class InMemoryNotificationSender implements NotificationSender {
+    private final List<List<Content>> batches = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void send(List<Content> batch) {
+        batches.add(batch);
+    }
+
+    List<List<Content>> getBatches() {
+        return new ArrayList<>(batches);
+    }
+
+    int getMessageCount() {
+        int count = 0;
+        for (List<Content> batch : batches) {
+            count += batch.size();
+        }
+        return count;
+    }
+}
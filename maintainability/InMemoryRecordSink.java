@@ -0,0 +1,45 @@
+package maintainability;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+// In-process stand-in for the SQL side of Question06: counts what it receives
+// and can simulate a fixed per-batch round trip, so pipeline overlap can be
+// measured without a database. Only called from the query stage thread.
+class InMemoryRecordSink implements RecordSink {
+    private final long latencyNanos;
+    private long records;
+    private long bytes;
+    private long batches;
+
+    InMemoryRecordSink() {
+        this(0);
+    }
+
+    InMemoryRecordSink(long latencyMicros) {
+        this.latencyNanos = TimeUnit.MICROSECONDS.toNanos(latencyMicros);
+    }
+
+    @Override
+    public void execute(RecordBatch batch) throws SQLException {
+        if (latencyNanos > 0) {
+            LockSupport.parkNanos(latencyNanos); // waiting on the "database", not burning CPU
+        }
+        records += batch.size();
+        bytes += batch.byteSize();
+        batches++;
+    }
+
+    long getRecordCount() {
+        return records;
+    }
+
+    long getByteCount() {
+        return bytes;
+    }
+
+    long getBatchCount() {
+        return batches;
+    }
+}
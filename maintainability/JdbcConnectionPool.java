@@ -0,0 +1,134 @@
+package maintainability;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Small fixed-size JDBC connection pool for the Question06 query stage.
+// Connections are opened lazily up to maxSize and handed out as PooledConnection,
+// which also caches the PreparedStatements created on it, so the per-record hot
+// path never re-parses SQL. A connection reported broken on release is closed
+// and replaced by a fresh one on a later borrow.
+// The pool's own failures (closed, interrupted or timed-out borrow) are raised as
+// SQLNonTransientConnectionException, so retry loops give up on them at once.
+final class JdbcConnectionPool implements AutoCloseable {
+
+    private final String url;
+    private final String user;
+    private final String password;
+    private final int maxSize;
+    private final BlockingQueue<PooledConnection> idle;
+    private final AtomicInteger opened = new AtomicInteger();
+    private volatile boolean closed;
+
+    JdbcConnectionPool(String url, String user, String password, int maxSize) {
+        if (url == null || url.isEmpty()) {
+            throw new IllegalArgumentException("JDBC URL cannot be empty");
+        }
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("Pool size must be positive. Provided: " + maxSize);
+        }
+        this.url = url;
+        this.user = user;
+        this.password = password;
+        this.maxSize = maxSize;
+        this.idle = new ArrayBlockingQueue<>(maxSize);
+    }
+
+    PooledConnection borrow(long timeoutMillis) throws SQLException {
+        if (closed) {
+            throw new SQLNonTransientConnectionException("Connection pool is closed", "08003");
+        }
+        PooledConnection connection = idle.poll();
+        if (connection != null) {
+            return connection;
+        }
+        if (opened.incrementAndGet() <= maxSize) {
+            try {
+                return new PooledConnection(DriverManager.getConnection(url, user, password));
+            } catch (SQLException | RuntimeException e) {
+                opened.decrementAndGet();
+                throw e;
+            }
+        }
+        opened.decrementAndGet();
+        try {
+            connection = idle.poll(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLNonTransientConnectionException("Interrupted while waiting for a connection", "08001", e);
+        }
+        if (connection == null) {
+            throw new SQLNonTransientConnectionException("No connection available within " + timeoutMillis
+                    + " ms (pool size " + maxSize + ")", "08001");
+        }
+        return connection;
+    }
+
+    // Returns the connection to the pool, or closes it when it is broken or the
+    // pool has been closed.
+    void release(PooledConnection connection, boolean broken) {
+        if (broken || closed || !idle.offer(connection)) {
+            opened.decrementAndGet();
+            connection.closeQuietly();
+        }
+    }
+
+    int getOpenCount() {
+        return opened.get();
+    }
+
+    int getIdleCount() {
+        return idle.size();
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        PooledConnection connection;
+        while ((connection = idle.poll()) != null) {
+            opened.decrementAndGet();
+            connection.closeQuietly();
+        }
+    }
+
+    // A pooled JDBC connection plus its prepared statement cache. Used by one
+    // thread at a time (between borrow and release).
+    static final class PooledConnection {
+        private final Connection connection;
+        private final Map<String, PreparedStatement> statements = new HashMap<>();
+
+        private PooledConnection(Connection connection) {
+            this.connection = connection;
+        }
+
+        Connection getConnection() {
+            return connection;
+        }
+
+        PreparedStatement prepare(String sql) throws SQLException {
+            PreparedStatement statement = statements.get(sql);
+            if (statement == null) {
+                statement = connection.prepareStatement(sql);
+                statements.put(sql, statement);
+            }
+            return statement;
+        }
+
+        private void closeQuietly() {
+            try {
+                connection.close(); // also closes its statements
+            } catch (SQLException e) {
+                // already unusable; nothing more to release
+            }
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package maintainability;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.atomic.LongAdder;
+
+// JDBC implementation of the Question06 query stage.
+// Each RecordBatch is written in one transaction through a cached
+// PreparedStatement, sent to the database in JDBC batches of jdbcBatchSize rows
+// (addBatch/executeBatch). If any part fails with a transient error, the whole
+// transaction is rolled back and the whole RecordBatch is retried with
+// exponential backoff (capped at MAX_BACKOFF_MILLIS), so a failure can never
+// leave part of a batch written or silently dropped. Non-transient errors, or running out of retries, surface as
+// SQLException with nothing committed for that batch.
+class JdbcRecordSink implements RecordSink {
+
+    // Binds one record to the insert statement's parameters
+    @FunctionalInterface
+    interface RecordBinder {
+        void bind(PreparedStatement statement, byte[] bytes, int offset, int length) throws SQLException;
+    }
+
+    // Default binder: the whole record as a single UTF-8 text parameter
+    static final RecordBinder LINE_BINDER = (statement, bytes, offset, length) -> statement.setString(1,
+            new String(bytes, offset, length, StandardCharsets.UTF_8));
+
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+
+    private final JdbcConnectionPool pool;
+    private final String insertSql;
+    private final RecordBinder binder;
+    private final int jdbcBatchSize;
+    private final int maxRetries;
+    private final long initialBackoffMillis;
+    private final long borrowTimeoutMillis = 30_000;
+
+    private final LongAdder records = new LongAdder();
+    private final LongAdder transactions = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    JdbcRecordSink(JdbcConnectionPool pool, String insertSql, RecordBinder binder, int jdbcBatchSize, int maxRetries,
+            long initialBackoffMillis) {
+        if (pool == null || insertSql == null || binder == null) {
+            throw new IllegalArgumentException("Pool, SQL and binder cannot be null");
+        }
+        if (jdbcBatchSize <= 0) {
+            throw new IllegalArgumentException("JDBC batch size must be positive. Provided: " + jdbcBatchSize);
+        }
+        if (maxRetries < 0 || initialBackoffMillis < 0) {
+            throw new IllegalArgumentException("Retries and backoff cannot be negative");
+        }
+        this.pool = pool;
+        this.insertSql = insertSql;
+        this.binder = binder;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.maxRetries = maxRetries;
+        this.initialBackoffMillis = initialBackoffMillis;
+    }
+
+    @Override
+    public void execute(RecordBatch batch) throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long backoff = initialBackoffMillis;
+        for (int attempt = 0;; attempt++) {
+            try {
+                writeInOneTransaction(batch);
+                records.add(batch.size());
+                transactions.increment();
+                return;
+            } catch (RuntimeException e) {
+                failures.increment(); // a binder bug, not worth retrying
+                throw e;
+            } catch (SQLException e) {
+                if (!isTransient(e) || attempt >= maxRetries) {
+                    failures.increment();
+                    throw e;
+                }
+                retries.increment();
+                sleep(backoff);
+                backoff = Math.min(MAX_BACKOFF_MILLIS, Math.max(1, backoff * 2));
+            }
+        }
+    }
+
+    long getRecordCount() {
+        return records.sum();
+    }
+
+    long getTransactionCount() {
+        return transactions.sum();
+    }
+
+    long getRetryCount() {
+        return retries.sum();
+    }
+
+    long getFailureCount() {
+        return failures.sum();
+    }
+
+    private void writeInOneTransaction(RecordBatch batch) throws SQLException {
+        JdbcConnectionPool.PooledConnection pooled = pool.borrow(borrowTimeoutMillis);
+        boolean broken = false;
+        Connection connection = pooled.getConnection();
+        PreparedStatement insert = null;
+        try {
+            if (connection.getAutoCommit()) {
+                connection.setAutoCommit(false);
+            }
+            insert = pooled.prepare(insertSql);
+            byte[] bytes = batch.getBytes();
+            int pending = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                binder.bind(insert, bytes, batch.getOffset(i), batch.getLength(i));
+                insert.addBatch();
+                if (++pending == jdbcBatchSize) {
+                    insert.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                insert.executeBatch();
+            }
+            connection.commit();
+        } catch (SQLException | RuntimeException e) {
+            // Undo the rows already executed and drop rows still queued by addBatch()
+            // on the cached statement, so neither leaks into the retry or the next
+            // borrower's commit. If that cannot be done, the connection is retired.
+            broken = (e instanceof SQLException && isConnectionError((SQLException) e))
+                    | !rollbackQuietly(pooled, insert, e);
+            throw e;
+        } finally {
+            pool.release(pooled, broken);
+        }
+    }
+
+    // Returns false if the connection could not be cleaned up; a failure is
+    // attached to the original error rather than replacing it
+    private static boolean rollbackQuietly(JdbcConnectionPool.PooledConnection pooled, PreparedStatement insert,
+            Exception cause) {
+        boolean clean = true;
+        if (insert != null) {
+            try {
+                insert.clearBatch();
+            } catch (SQLException e) {
+                cause.addSuppressed(e);
+                clean = false;
+            }
+        }
+        try {
+            pooled.getConnection().rollback();
+        } catch (SQLException e) {
+            cause.addSuppressed(e);
+            clean = false;
+        }
+        return clean;
+    }
+
+    // Worth retrying: the driver says so, or the SQLState class is a connection
+    // error (08) or a transaction rollback such as a deadlock (40). Errors raised
+    // as SQLNonTransientException, like the pool's own (closed, interrupted,
+    // timed out), never are, whatever their state.
+    private static boolean isTransient(SQLException e) {
+        if (e instanceof SQLNonTransientException) {
+            return false;
+        }
+        if (e instanceof SQLTransientException || e instanceof SQLRecoverableException) {
+            return true;
+        }
+        String state = e.getSQLState();
+        return state != null && (state.startsWith("08") || state.startsWith("40"));
+    }
+
+    private static boolean isConnectionError(SQLException e) {
+        String state = e.getSQLState();
+        return e instanceof SQLRecoverableException || (state != null && state.startsWith("08"));
+    }
+
+    private static void sleep(long millis) throws SQLException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLNonTransientException("Interrupted while backing off before a retry", "08000", e);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package maintainability;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+// Insert throughput (records/s) of JdbcRecordSink at different JDBC batch sizes,
+// against one commit per record (what a per-record executeQuery amounts to).
+// Needs a JDBC driver on the classpath; the default URL is an in-memory H2
+// database, any other database can be passed as the first argument.
+// Run: java -cp .:h2.jar maintainability.JdbcSinkBenchmark [jdbcUrl] [records]
+class JdbcSinkBenchmark {
+
+    private static final String TABLE = "benchmark_records";
+    private static final String INSERT = "INSERT INTO " + TABLE + " (line) VALUES (?)";
+
+    public static void main(String[] args) throws SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:h2:mem:records;DB_CLOSE_DELAY=-1";
+        int records = args.length > 1 ? Integer.parseInt(args[1]) : 100_000;
+
+        RecordBatch[] oneBatch = syntheticBatches(records, records);
+        RecordBatch[] perRecord = syntheticBatches(records, 1);
+
+        try (JdbcConnectionPool pool = new JdbcConnectionPool(url, null, null, 2)) {
+            createTable(pool);
+            System.out.printf("%s, %d records%n", url, records);
+
+            report("one commit per record", records, pool,
+                    new JdbcRecordSink(pool, INSERT, JdbcRecordSink.LINE_BINDER, 1, 3, 10), perRecord);
+            for (int batchSize : new int[] { 1, 10, 100, 1000 }) {
+                report("JDBC batch of " + batchSize, records, pool,
+                        new JdbcRecordSink(pool, INSERT, JdbcRecordSink.LINE_BINDER, batchSize, 3, 10), oneBatch);
+            }
+        }
+    }
+
+    // One warm-up pass and three timed passes, emptying the table in between
+    private static void report(String name, int records, JdbcConnectionPool pool, JdbcRecordSink sink,
+            RecordBatch[] batches) throws SQLException {
+        long best = Long.MAX_VALUE;
+        for (int pass = 0; pass < 4; pass++) {
+            truncate(pool);
+            long start = System.nanoTime();
+            for (RecordBatch batch : batches) {
+                sink.execute(batch);
+            }
+            long elapsed = System.nanoTime() - start;
+            if (pass > 0) {
+                best = Math.min(best, elapsed);
+            }
+        }
+        Benchmarks.sink = sink.getRecordCount();
+        System.out.printf("%-40s %14.0f records/s %6d retries%n", name, records * 1e9 / best, sink.getRetryCount());
+    }
+
+    private static RecordBatch[] syntheticBatches(int records, int perBatch) {
+        int count = (records + perBatch - 1) / perBatch;
+        RecordBatch[] batches = new RecordBatch[count];
+        ByteBuffer line = ByteBuffer.allocate(64);
+        for (int i = 0; i < records; i++) {
+            int b = i / perBatch;
+            if (batches[b] == null) {
+                batches[b] = new RecordBatch(perBatch, perBatch * 64);
+            }
+            line.clear();
+            line.put(("record-" + i + ",payload").getBytes(StandardCharsets.UTF_8));
+            batches[b].add(line, 0, line.position());
+        }
+        return batches;
+    }
+
+    private static void createTable(JdbcConnectionPool pool) throws SQLException {
+        execute(pool, "CREATE TABLE IF NOT EXISTS " + TABLE + " (line VARCHAR(64))");
+    }
+
+    private static void truncate(JdbcConnectionPool pool) throws SQLException {
+        execute(pool, "DELETE FROM " + TABLE);
+    }
+
+    private static void execute(JdbcConnectionPool pool, String sql) throws SQLException {
+        JdbcConnectionPool.PooledConnection pooled = pool.borrow(1000);
+        try {
+            Connection connection = pooled.getConnection();
+            try (Statement statement = connection.createStatement()) {
+                statement.execute(sql);
+            }
+            if (!connection.getAutoCommit()) {
+                connection.commit();
+            }
+        } finally {
+            pool.release(pooled, false);
+        }
+    }
+}
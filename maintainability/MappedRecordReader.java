@@ -0,0 +1,121 @@
+package maintainability;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Streaming reader behind Question06.readFile.
+// The file is mapped with FileChannel.map one window of chunkBytes at a time, so
+// files larger than 2 GB (the limit of a single mapping) are read window by
+// window. Records are split on a delimiter byte by scanning the mapped bytes
+// directly and handed to a RecordHandler as (buffer, offset, length): no String,
+// byte[] or slice is created per record.
+//
+// A record that straddles a window boundary is re-read at the start of the next
+// window, so handlers always see complete records.
+final class MappedRecordReader {
+
+    @FunctionalInterface
+    interface RecordHandler {
+        // The record is buffer[offset, offset + length), without the delimiter. The
+        // buffer is only valid for the duration of the call.
+        void onRecord(ByteBuffer buffer, int offset, int length) throws IOException;
+    }
+
+    static final int DEFAULT_CHUNK_BYTES = 256 << 20;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private final int chunkBytes;
+    private final byte delimiter;
+    private final long delimiterPattern;
+
+    MappedRecordReader() {
+        this(DEFAULT_CHUNK_BYTES, (byte) '\n');
+    }
+
+    MappedRecordReader(int chunkBytes, byte delimiter) {
+        if (chunkBytes < Long.BYTES) {
+            throw new IllegalArgumentException("Chunk size must be at least " + Long.BYTES + ". Provided: " + chunkBytes);
+        }
+        this.chunkBytes = chunkBytes;
+        this.delimiter = delimiter;
+        this.delimiterPattern = ONES * (delimiter & 0xFF);
+    }
+
+    // Reads every record in file and returns how many were passed to handler.
+    // A trailing '\r' before a '\n' delimiter is dropped, so CRLF files work too.
+    long read(Path file, RecordHandler handler) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            throw new FileNotFoundException(file.toString());
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            long records = 0;
+            while (position < size) {
+                int length = (int) Math.min(chunkBytes, size - position);
+                MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                window.order(ByteOrder.LITTLE_ENDIAN);
+
+                int start = 0;
+                int match;
+                while ((match = indexOfDelimiter(window, start, length)) >= 0) {
+                    emit(window, start, match, handler);
+                    records++;
+                    start = match + 1;
+                }
+
+                if (position + length == size) {
+                    // Last window: an unterminated tail is a record too
+                    if (start < length) {
+                        emit(window, start, length, handler);
+                        records++;
+                    }
+                    position = size;
+                } else if (start == 0) {
+                    throw new IOException("Record at byte " + position + " is longer than the chunk size ("
+                            + chunkBytes + " bytes)");
+                } else {
+                    // Resume at the first byte of the incomplete record
+                    position += start;
+                }
+            }
+            return records;
+        }
+    }
+
+    private void emit(ByteBuffer window, int start, int end, RecordHandler handler) throws IOException {
+        if (delimiter == '\n' && end > start && window.get(end - 1) == '\r') {
+            end--;
+        }
+        handler.onRecord(window, start, end - start);
+    }
+
+    // SWAR scan: compares eight bytes per step using the "has zero byte" bit trick
+    // on word ^ pattern. The lowest flagged byte is always a real match (false
+    // positives can only appear above a real one), which is the only one used.
+    private int indexOfDelimiter(ByteBuffer window, int from, int limit) {
+        int i = from;
+        for (; i + Long.BYTES <= limit; i += Long.BYTES) {
+            long word = window.getLong(i) ^ delimiterPattern;
+            long found = (word - ONES) & ~word & HIGHS;
+            if (found != 0) {
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+        for (; i < limit; i++) {
+            if (window.get(i) == delimiter) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,69 @@
+package maintainability;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+// Compares the three ways of computing Question03 discounts over a column of
+// line items: double (fast, drifts), BigDecimal (exact, allocates per value)
+// and FixedPointMoney (exact, allocation-free).
+// Run: java maintainability.MoneyBenchmark [rows]
+class MoneyBenchmark {
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(42);
+        long[] totalsMinor = new long[rows];
+        int[] basisPoints = new int[rows];
+        double[] totals = new double[rows];
+        double[] rates = new double[rows];
+        BigDecimal[] totalsDecimal = new BigDecimal[rows];
+        BigDecimal[] ratesDecimal = new BigDecimal[rows];
+        for (int i = 0; i < rows; i++) {
+            totalsMinor[i] = random.nextInt(10_000_000);
+            basisPoints[i] = random.nextInt(FixedPointMoney.MAX_BASIS_POINTS + 1);
+            totals[i] = totalsMinor[i] / 100.0;
+            rates[i] = basisPoints[i] / 100.0;
+            totalsDecimal[i] = BigDecimal.valueOf(totalsMinor[i], 2);
+            ratesDecimal[i] = BigDecimal.valueOf(basisPoints[i], 2);
+        }
+        BigDecimal hundred = BigDecimal.valueOf(100);
+
+        Benchmarks.measure("double", rows, () -> {
+            double sum = 0;
+            for (int i = 0; i < rows; i++) {
+                sum += totals[i] * rates[i] / 100;
+            }
+            Benchmarks.sink = (long) sum;
+        });
+
+        Benchmarks.measure("BigDecimal (HALF_EVEN)", rows, () -> {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (int i = 0; i < rows; i++) {
+                sum = sum.add(totalsDecimal[i].multiply(ratesDecimal[i]).divide(hundred, 2, RoundingMode.HALF_EVEN));
+            }
+            Benchmarks.sink = sum.unscaledValue().longValue();
+        });
+
+        Benchmarks.measure("fixed-point long (HALF_EVEN)", rows, () -> {
+            long sum = 0;
+            for (int i = 0; i < rows; i++) {
+                sum = FixedPointMoney.add(sum, FixedPointMoney.discount(totalsMinor[i], basisPoints[i],
+                        RoundingMode.HALF_EVEN));
+            }
+            Benchmarks.sink = sum;
+        });
+
+        // Drift: how far the double path lands from the exact answer after rounding.
+        // Both sides round HALF_EVEN (Math.rint), so every mismatch is double error,
+        // not a difference in rounding mode.
+        long mismatches = 0;
+        for (int i = 0; i < rows; i++) {
+            long exact = FixedPointMoney.discount(totalsMinor[i], basisPoints[i], RoundingMode.HALF_EVEN);
+            if ((long) Math.rint(totals[i] * rates[i]) != exact) {
+                mismatches++;
+            }
+        }
+        System.out.printf("double rows rounding differently from exact HALF_EVEN: %d of %d%n", mismatches, rows);
+    }
+}
@@ -0,0 +1,12 @@
+package maintainability;
+
+// Replaces the boolean isEmail flag of Question02.sendNotification; adding Push
+// or Slack later means a new constant and a new sender, not a new branch.
+enum NotificationChannel {
+    EMAIL,
+    SMS;
+
+    static NotificationChannel of(boolean isEmail) {
+        return isEmail ? EMAIL : SMS;
+    }
+}
@@ -0,0 +1,291 @@
+package maintainability;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.swing.text.AbstractDocument.Content;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Segment;
+
+// Time-windowed dedup in front of NotificationPipeline.
+// The first send of a given content on a channel goes straight through; further
+// identical sends within windowMillis are only counted. When the window closes,
+// the duplicates are folded into a single CoalescedContent carrying the count,
+// so a burst of N identical messages costs at most two real sends.
+//
+// Entries are keyed on a 64-bit hash of the content characters plus the channel,
+// and live in a fixed number of lock-striped insertion-ordered maps. Each entry
+// keeps the text it was opened with, and a hit is only counted when the text and
+// channel really match; content that merely collides on the hash is sent on its
+// own, never merged. Windows have a fixed length, so the eldest entry is always
+// the first to expire; when a stripe is full, that entry is flushed early
+// instead of growing the map.
+class NotificationDeduplicator implements AutoCloseable {
+
+    private static final int STRIPES = 16;
+
+    private final NotificationPipeline pipeline;
+    private final long windowNanos;
+    private final int maxEntriesPerStripe;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final ScheduledExecutorService flusher;
+    private final ThreadLocal<Segment> segments = ThreadLocal.withInitial(() -> {
+        Segment segment = new Segment();
+        segment.setPartialReturn(true);
+        return segment;
+    });
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder coalescedSends = new LongAdder();
+    private final LongAdder collisions = new LongAdder();
+
+    NotificationDeduplicator(NotificationPipeline pipeline, long windowMillis, int maxEntries) {
+        if (pipeline == null) {
+            throw new IllegalArgumentException("Pipeline cannot be null");
+        }
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Window must be positive. Provided: " + windowMillis);
+        }
+        if (maxEntries < STRIPES) {
+            throw new IllegalArgumentException("Max entries must be at least " + STRIPES + ". Provided: " + maxEntries);
+        }
+        this.pipeline = pipeline;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMillis);
+        this.maxEntriesPerStripe = maxEntries / STRIPES;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "notification-dedup-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1, windowMillis / 4);
+        flusher.scheduleAtFixedRate(this::flushExpired, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    NotificationPipeline.SubmitResult submit(Content content, NotificationChannel channel) {
+        if (content == null || channel == null) {
+            throw new IllegalArgumentException("Content and channel cannot be null");
+        }
+        long key = hash(content) * 31 + channel.ordinal();
+        long now = System.nanoTime();
+        Stripe stripe = stripes[(int) (key ^ (key >>> 32)) & (STRIPES - 1)];
+
+        Entry evicted = null;
+        synchronized (stripe) {
+            Entry entry = stripe.entries.get(key);
+            if (entry != null && now - entry.windowStart < windowNanos) {
+                if (entry.channel == channel && sameText(entry.text, content)) {
+                    entry.duplicates++;
+                    hits.increment();
+                    return NotificationPipeline.SubmitResult.ACCEPTED;
+                }
+                // Hash collision with an open window: leave it alone and send this one as is
+                collisions.increment();
+            } else {
+                String text = text(content);
+                if (entry != null) {
+                    // Window already over but not flushed yet: close it out now
+                    stripe.entries.remove(key);
+                    evicted = entry;
+                } else if (text != null && stripe.entries.size() >= maxEntriesPerStripe) {
+                    Iterator<Entry> eldest = stripe.entries.values().iterator();
+                    evicted = eldest.next();
+                    eldest.remove();
+                    evictions.increment();
+                }
+                if (text != null) { // null: content changed while read, nothing stable to dedup on
+                    stripe.entries.put(key, new Entry(content, text, channel, now));
+                }
+            }
+            misses.increment();
+        }
+        emit(evicted);
+        return pipeline.submit(content, channel);
+    }
+
+    // Closes every window that has run its course and sends the folded duplicates.
+    void flushExpired() {
+        long now = System.nanoTime();
+        List<Entry> expired = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                Iterator<Entry> it = stripe.entries.values().iterator();
+                while (it.hasNext()) {
+                    Entry entry = it.next();
+                    if (now - entry.windowStart < windowNanos) {
+                        break; // insertion order: everything after this is younger
+                    }
+                    it.remove();
+                    expired.add(entry);
+                }
+            }
+        }
+        for (Entry entry : expired) {
+            emit(entry);
+        }
+    }
+
+    // ---- Metrics ----------------------------------------------------------
+
+    // Sends folded into an open window (i.e. not sent on their own)
+    long getHitCount() {
+        return hits.sum();
+    }
+
+    // Sends that opened a new window and went straight to the pipeline
+    long getMissCount() {
+        return misses.sum();
+    }
+
+    // Windows closed early because their stripe was full
+    long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    // Trailing messages emitted on behalf of folded duplicates
+    long getCoalescedSendCount() {
+        return coalescedSends.sum();
+    }
+
+    // Distinct contents that shared a hash key with an open window; sent undeduped
+    long getCollisionCount() {
+        return collisions.sum();
+    }
+
+    // Fraction of requested sends that never reached the pipeline
+    double getSuppressionRatio() {
+        long requested = hits.sum() + misses.sum();
+        return requested == 0 ? 0 : (double) (hits.sum() - coalescedSends.sum()) / requested;
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.entries.size();
+            }
+        }
+        return size;
+    }
+
+    // Stops the flusher thread and sends every pending folded duplicate; close
+    // this before the pipeline so those sends are still accepted.
+    @Override
+    public void close() {
+        flusher.shutdownNow();
+        try {
+            flusher.awaitTermination(1, TimeUnit.MINUTES); // let a running flushExpired finish its sends
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Entry> pending = new ArrayList<>();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                pending.addAll(stripe.entries.values());
+                stripe.entries.clear();
+            }
+        }
+        for (Entry entry : pending) {
+            emit(entry);
+        }
+    }
+
+    private void emit(Entry entry) {
+        if (entry == null || entry.duplicates == 0) {
+            return;
+        }
+        coalescedSends.increment();
+        pipeline.submit(new CoalescedContent(entry.content, entry.duplicates), entry.channel);
+    }
+
+    // FNV-1a over the characters, read through a reused Segment so hashing does
+    // not copy the content into a String.
+    private long hash(Content content) {
+        long hash = 0xcbf29ce484222325L;
+        Segment segment = segments.get();
+        int offset = 0;
+        int remaining = content.length();
+        try {
+            while (remaining > 0) {
+                content.getChars(offset, remaining, segment);
+                for (int i = segment.offset, end = segment.offset + segment.count; i < end; i++) {
+                    hash = (hash ^ segment.array[i]) * 0x100000001b3L;
+                }
+                offset += segment.count;
+                remaining -= segment.count;
+            }
+        } catch (BadLocationException e) {
+            // Content changed while reading: fall back to identity so it is never wrongly merged
+            return System.identityHashCode(content);
+        } finally {
+            segment.array = null;
+        }
+        return hash;
+    }
+
+    // Copy of the content's text, taken once when a window opens
+    private static String text(Content content) {
+        try {
+            return content.getString(0, content.length());
+        } catch (BadLocationException e) {
+            return null;
+        }
+    }
+
+    // Compares without copying, through the same reused Segment as hash()
+    private boolean sameText(String text, Content content) {
+        if (content.length() != text.length()) {
+            return false;
+        }
+        Segment segment = segments.get();
+        int offset = 0;
+        int remaining = text.length();
+        try {
+            while (remaining > 0) {
+                content.getChars(offset, remaining, segment);
+                for (int i = 0; i < segment.count; i++) {
+                    if (segment.array[segment.offset + i] != text.charAt(offset + i)) {
+                        return false;
+                    }
+                }
+                offset += segment.count;
+                remaining -= segment.count;
+            }
+        } catch (BadLocationException e) {
+            return false;
+        } finally {
+            segment.array = null;
+        }
+        return true;
+    }
+
+    private static final class Stripe {
+        private final Map<Long, Entry> entries = new LinkedHashMap<>();
+    }
+
+    private static final class Entry {
+        private final Content content;
+        private final String text;
+        private final NotificationChannel channel;
+        private final long windowStart;
+        private int duplicates;
+
+        Entry(Content content, String text, NotificationChannel channel, long windowStart) {
+            this.content = content;
+            this.text = text;
+            this.channel = channel;
+            this.windowStart = windowStart;
+        }
+    }
+}
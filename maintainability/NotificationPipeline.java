@@ -0,0 +1,343 @@
+package maintainability;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.swing.text.AbstractDocument.Content;
+import javax.swing.text.StringContent;
+
+// Asynchronous send path behind Question02.sendNotification.
+// Each channel gets its own bounded queue and worker, so a slow email gateway
+// can never hold up SMS traffic or the thread that submitted the message.
+// Workers drain their queue into batches of up to batchSize messages, waiting
+// at most lingerMillis for a batch to fill before handing it to the sender.
+// A batch the sender throws on (Errors included) is counted as failed, see
+// getFailedCount and getLastFailure, and the worker carries on.
+//
+// Workers are created by a ThreadFactory. The default makes daemon platform
+// threads; on Java 21+ pass Thread.ofVirtual().factory() to run them as
+// virtual threads.
+//
+// close() first stops new submits, waits for producers already inside submit()
+// to finish (a BLOCK producer waiting for space gives up with CLOSED), then
+// queues an end marker behind the last accepted message. Every ACCEPTED message
+// is therefore sent before the workers exit, and workers are never interrupted,
+// so a sender blocked in I/O is not cut short.
+class NotificationPipeline implements AutoCloseable {
+
+    // What submit() does when a channel queue is full
+    enum OverflowPolicy {
+        BLOCK, // wait for space (the caller is slowed down to the sender's pace)
+        DROP // reject the message immediately and count it as dropped
+    }
+
+    enum SubmitResult {
+        ACCEPTED,
+        DROPPED,
+        CLOSED
+    }
+
+    // Queued by close() after the last accepted message; never sent
+    private static final Content END = new StringContent();
+    private static final long CLOSE_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Map<NotificationChannel, ChannelWorker> workers = new EnumMap<>(NotificationChannel.class);
+    private final OverflowPolicy overflowPolicy;
+    private final double highWatermark;
+    private final AtomicInteger activeSubmits = new AtomicInteger();
+    private volatile boolean closed;
+    private boolean stopped; // guarded by this
+
+    private NotificationPipeline(Builder builder) {
+        this.overflowPolicy = builder.overflowPolicy;
+        this.highWatermark = builder.highWatermark;
+        for (Map.Entry<NotificationChannel, NotificationSender> entry : builder.senders.entrySet()) {
+            ChannelWorker worker = new ChannelWorker(entry.getValue(), builder.queueCapacity, builder.batchSize,
+                    builder.lingerMillis);
+            workers.put(entry.getKey(), worker);
+        }
+        for (ChannelWorker worker : workers.values()) {
+            worker.thread = builder.threadFactory.newThread(worker);
+            worker.thread.start();
+        }
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    SubmitResult submit(Content content, NotificationChannel channel) {
+        if (content == null) {
+            throw new IllegalArgumentException("Content cannot be null");
+        }
+        ChannelWorker worker = workerFor(channel);
+        // Registered before the closed check, so close() either sees this submit
+        // in flight or this submit sees closed
+        activeSubmits.incrementAndGet();
+        try {
+            if (closed) {
+                return SubmitResult.CLOSED;
+            }
+            if (overflowPolicy == OverflowPolicy.DROP) {
+                if (worker.queue.offer(content)) {
+                    return SubmitResult.ACCEPTED;
+                }
+                worker.dropped.incrementAndGet();
+                return SubmitResult.DROPPED;
+            }
+            while (!worker.queue.offer(content, CLOSE_POLL_NANOS, TimeUnit.NANOSECONDS)) {
+                if (closed) {
+                    return SubmitResult.CLOSED; // still full when close() started
+                }
+            }
+            return SubmitResult.ACCEPTED;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            worker.dropped.incrementAndGet();
+            return SubmitResult.DROPPED;
+        } finally {
+            activeSubmits.decrementAndGet();
+        }
+    }
+
+    // ---- Backpressure signals --------------------------------------------
+
+    // True once the channel queue is filled past the high watermark; producers
+    // can use this to shed or defer optional traffic before drops/blocking start.
+    boolean isUnderPressure(NotificationChannel channel) {
+        ChannelWorker worker = workerFor(channel);
+        return worker.queue.size() >= worker.capacity * highWatermark;
+    }
+
+    int getQueueDepth(NotificationChannel channel) {
+        return workerFor(channel).queue.size();
+    }
+
+    int getRemainingCapacity(NotificationChannel channel) {
+        return workerFor(channel).queue.remainingCapacity();
+    }
+
+    long getDroppedCount(NotificationChannel channel) {
+        return workerFor(channel).dropped.get();
+    }
+
+    long getSentCount(NotificationChannel channel) {
+        return workerFor(channel).sent.get();
+    }
+
+    long getBatchCount(NotificationChannel channel) {
+        return workerFor(channel).batches.get();
+    }
+
+    long getFailedCount(NotificationChannel channel) {
+        return workerFor(channel).failed.get();
+    }
+
+    // What the channel's sender last threw, or null if it never failed
+    Throwable getLastFailure(NotificationChannel channel) {
+        return workerFor(channel).lastFailure;
+    }
+
+    // Stops accepting messages, lets the workers send everything accepted so far
+    // and waits for them to finish. A message submitted while close() is running
+    // is either sent or rejected with CLOSED, never lost.
+    @Override
+    public synchronized void close() {
+        closed = true;
+        try {
+            if (!stopped) {
+                while (activeSubmits.get() > 0) {
+                    LockSupport.parkNanos(CLOSE_POLL_NANOS / 10);
+                }
+                for (ChannelWorker worker : workers.values()) {
+                    worker.queue.put(END); // the worker keeps draining, so space appears
+                }
+                stopped = true;
+            }
+            for (ChannelWorker worker : workers.values()) {
+                worker.thread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ChannelWorker workerFor(NotificationChannel channel) {
+        ChannelWorker worker = workers.get(channel);
+        if (worker == null) {
+            throw new IllegalArgumentException("No sender registered for channel " + channel);
+        }
+        return worker;
+    }
+
+    private final class ChannelWorker implements Runnable {
+        private final NotificationSender sender;
+        private final BlockingQueue<Content> queue;
+        private final int capacity;
+        private final int batchSize;
+        private final long lingerNanos;
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicLong sent = new AtomicLong();
+        private final AtomicLong batches = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private volatile Throwable lastFailure;
+        private Thread thread;
+
+        ChannelWorker(NotificationSender sender, int capacity, int batchSize, long lingerMillis) {
+            this.sender = sender;
+            this.queue = new ArrayBlockingQueue<>(capacity);
+            this.capacity = capacity;
+            this.batchSize = batchSize;
+            this.lingerNanos = TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                List<Content> batch = new ArrayList<>(batchSize);
+                try {
+                    Content first = queue.take();
+                    batch.add(first);
+                    if (first != END) {
+                        fill(batch);
+                    }
+                } catch (InterruptedException e) {
+                    // close() does not interrupt; a stray interrupt just ends this batch early
+                }
+                // END is the last element ever queued, so it can only end a batch
+                boolean last = !batch.isEmpty() && batch.get(batch.size() - 1) == END;
+                if (last) {
+                    batch.remove(batch.size() - 1);
+                }
+                if (!batch.isEmpty()) {
+                    dispatch(batch);
+                }
+                if (last) {
+                    return;
+                }
+            }
+        }
+
+        // Tops the batch up with whatever is already queued, then keeps waiting
+        // for more until it is full or the linger time has elapsed.
+        private void fill(List<Content> batch) throws InterruptedException {
+            queue.drainTo(batch, batchSize - batch.size());
+            long deadline = System.nanoTime() + lingerNanos;
+            while (batch.size() < batchSize && batch.get(batch.size() - 1) != END) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                Content next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+                queue.drainTo(batch, batchSize - batch.size());
+            }
+        }
+
+        private void dispatch(List<Content> batch) {
+            int size = batch.size();
+            try {
+                sender.send(batch);
+                sent.addAndGet(size);
+                batches.incrementAndGet();
+            } catch (Throwable e) {
+                // Nothing a sender throws, Errors included, may end the worker: a dead
+                // worker would leave BLOCK producers and close() waiting on a full queue
+                failed.addAndGet(size);
+                lastFailure = e;
+            }
+        }
+    }
+
+    static final class Builder {
+        private final Map<NotificationChannel, NotificationSender> senders = new EnumMap<>(NotificationChannel.class);
+        private int queueCapacity = 10_000;
+        private int batchSize = 100;
+        private long lingerMillis = 10;
+        private double highWatermark = 0.8;
+        private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+        private ThreadFactory threadFactory = runnable -> {
+            Thread thread = new Thread(runnable, "notification-worker");
+            thread.setDaemon(true);
+            return thread;
+        };
+
+        private Builder() {
+        }
+
+        Builder sender(NotificationChannel channel, NotificationSender sender) {
+            if (channel == null || sender == null) {
+                throw new IllegalArgumentException("Channel and sender cannot be null");
+            }
+            senders.put(channel, sender);
+            return this;
+        }
+
+        Builder queueCapacity(int queueCapacity) {
+            if (queueCapacity <= 0) {
+                throw new IllegalArgumentException("Queue capacity must be positive. Provided: " + queueCapacity);
+            }
+            this.queueCapacity = queueCapacity;
+            return this;
+        }
+
+        Builder batchSize(int batchSize) {
+            if (batchSize <= 0) {
+                throw new IllegalArgumentException("Batch size must be positive. Provided: " + batchSize);
+            }
+            this.batchSize = batchSize;
+            return this;
+        }
+
+        Builder lingerMillis(long lingerMillis) {
+            if (lingerMillis < 0) {
+                throw new IllegalArgumentException("Linger time cannot be negative. Provided: " + lingerMillis);
+            }
+            this.lingerMillis = lingerMillis;
+            return this;
+        }
+
+        Builder highWatermark(double highWatermark) {
+            if (!(highWatermark > 0 && highWatermark <= 1)) {
+                throw new IllegalArgumentException("High watermark must be in (0, 1]. Provided: " + highWatermark);
+            }
+            this.highWatermark = highWatermark;
+            return this;
+        }
+
+        Builder overflowPolicy(OverflowPolicy overflowPolicy) {
+            if (overflowPolicy == null) {
+                throw new IllegalArgumentException("Overflow policy cannot be null");
+            }
+            this.overflowPolicy = overflowPolicy;
+            return this;
+        }
+
+        Builder threadFactory(ThreadFactory threadFactory) {
+            if (threadFactory == null) {
+                throw new IllegalArgumentException("Thread factory cannot be null");
+            }
+            this.threadFactory = threadFactory;
+            return this;
+        }
+
+        NotificationPipeline build() {
+            if (senders.isEmpty()) {
+                throw new IllegalArgumentException("At least one channel sender is required");
+            }
+            return new NotificationPipeline(this);
+        }
+    }
+}
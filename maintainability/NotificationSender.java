@@ -0,0 +1,13 @@
+package maintainability;
+
+import java.util.List;
+
+import javax.swing.text.AbstractDocument.Content;
+
+// One implementation per channel (see EmailNotificationSender/SMSNotificationSender
+// in the Question02 answer). Senders receive whole batches so a transport can
+// amortise its per-request cost; the list is owned by the sender once passed in.
+@FunctionalInterface
+interface NotificationSender {
+    void send(List<Content> batch);
+}
@@ -0,0 +1,48 @@
+package maintainability;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Per-stage throughput of OrderBatchProcessor at several fork-join parallelism
+// levels: discount orders/s, then the notification rate actually achieved
+// against the configured limit. Roughly one order in a hundred has a discount
+// and is notified.
+// Run: java maintainability.OrderBatchBenchmark [orders] [notificationsPerSecond]
+class OrderBatchBenchmark {
+
+    public static void main(String[] args) throws InterruptedException {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 4_000_000;
+        double rate = args.length > 1 ? Double.parseDouble(args[1]) : 50_000;
+
+        OrderStore orders = new OrderStore(16);
+        long[] totals = new long[rows];
+        int[] basisPoints = new int[rows];
+        long[] discounts = new long[rows];
+        Random random = new Random(42);
+        for (int i = 0; i < rows; i++) {
+            orders.add("ORD-" + i, 1_700_000_000_000L + i);
+            totals[i] = 100 + random.nextInt(1_000_000);
+            basisPoints[i] = random.nextInt(100) == 0 ? 500 : 0;
+        }
+
+        InMemoryNotificationSender sender = new InMemoryNotificationSender();
+        try (NotificationPipeline pipeline = NotificationPipeline.builder()
+                .sender(NotificationChannel.EMAIL, sender)
+                .build()) {
+            int cores = Runtime.getRuntime().availableProcessors();
+            for (int parallelism : new int[] { 1, 2, 4, cores }) {
+                try (OrderBatchProcessor processor = OrderBatchProcessor.builder(pipeline)
+                        .parallelism(parallelism)
+                        .notificationsPerSecond(rate, 1000)
+                        .build()) {
+                    processor.process(orders, totals, basisPoints, discounts); // warm-up, notifications included
+                    OrderBatchStats stats = processor.process(orders, totals, basisPoints, discounts);
+                    stats.awaitNotifications(10, TimeUnit.MINUTES);
+                    System.out.printf("parallelism %-3d discount %14.0f orders/s   notify %10.0f/s (limit %.0f)%n",
+                            parallelism, stats.getDiscountOrdersPerSecond(), stats.getNotificationsPerSecond(), rate);
+                    Benchmarks.sink = discounts[rows - 1];
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,313 @@
+package maintainability;
+
+import java.math.RoundingMode;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveTask;
+
+import javax.swing.text.AbstractDocument.Content;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.StringContent;
+
+// End-of-day batch run for Question07 orders, replacing a sequential loop of
+// calculateDiscount() and sendOrderNotification() per order.
+//
+// Stage 1 (discounts) splits the order range across a ForkJoinPool of the
+// configured parallelism and computes each discount with FixedPointMoney into a
+// caller-supplied column. Each finished range is handed to stage 2 straight
+// away.
+//
+// Stage 2 (notifications) is a single background thread that builds one
+// notification per discounted order and submits it to a NotificationPipeline,
+// paced by a RateLimiter so a large batch cannot flood the gateways. It runs
+// behind stage 1, so process() returns as soon as the discounts are done.
+// Stage 1 copies the rows to notify and their discounts out of each finished
+// range, so the caller may reuse the columns as soon as process() returns; the
+// OrderStore is append-only, so the rows stage 2 reads from it do not change.
+class OrderBatchProcessor implements AutoCloseable {
+
+    // Builds the notification text for one order
+    @FunctionalInterface
+    interface NotificationFactory {
+        Content create(OrderStore orders, int index, long discountMinorUnits);
+    }
+
+    static final int PARALLEL_THRESHOLD = 1 << 14;
+
+    static final NotificationFactory DEFAULT_NOTIFICATION = (orders, index, discount) -> {
+        StringContent content = new StringContent();
+        try {
+            content.insertString(0, "Order " + orders.getOrderId(index) + ": discount of " + discount + " applied");
+        } catch (BadLocationException e) {
+            throw new IllegalStateException(e); // offset 0 is always valid
+        }
+        return content;
+    };
+
+    private final ForkJoinPool pool;
+    private final NotificationPipeline pipeline;
+    private final NotificationChannel channel;
+    private final RateLimiter rateLimiter;
+    private final NotificationFactory notificationFactory;
+    private final RoundingMode roundingMode;
+    private final long minDiscountToNotify;
+    private final BlockingQueue<NotificationWork> notificationQueue = new LinkedBlockingQueue<>();
+    private final Thread notifier;
+
+    private OrderBatchProcessor(Builder builder) {
+        this.pool = new ForkJoinPool(builder.parallelism);
+        this.pipeline = builder.pipeline;
+        this.channel = builder.channel;
+        this.rateLimiter = builder.notificationsPerSecond > 0
+                ? new RateLimiter(builder.notificationsPerSecond, builder.burst)
+                : null;
+        this.notificationFactory = builder.notificationFactory;
+        this.roundingMode = builder.roundingMode;
+        this.minDiscountToNotify = builder.minDiscountToNotify;
+        this.notifier = new Thread(this::runNotifications, "order-batch-notifier");
+        notifier.setDaemon(true);
+        notifier.start();
+    }
+
+    static Builder builder(NotificationPipeline pipeline) {
+        return new Builder(pipeline);
+    }
+
+    // Computes discounts[i] = totals[i] * basisPoints[i] / 10000 for every order
+    // in the store (FixedPointMoney.INVALID for out-of-range rows) and queues the
+    // notifications. Returns once all discounts are written; use
+    // OrderBatchStats.awaitNotifications to wait for the notification stage.
+    // The columns are not read after this returns.
+    OrderBatchStats process(OrderStore orders, long[] totalsMinorUnits, int[] basisPoints, long[] discounts) {
+        int rows = orders.size();
+        if (totalsMinorUnits.length < rows || basisPoints.length < rows || discounts.length < rows) {
+            throw new IllegalArgumentException("Columns must cover all " + rows + " orders");
+        }
+        OrderBatchStats stats = new OrderBatchStats(pool.getParallelism());
+        long start = System.nanoTime();
+        DiscountTask task = new DiscountTask(this, stats, orders, totalsMinorUnits, basisPoints, discounts, 0, rows);
+        stats.invalidOrders = rows < PARALLEL_THRESHOLD ? task.compute() : pool.invoke(task);
+        stats.discountNanos = System.nanoTime() - start;
+        stats.orders = rows;
+        // Every range was queued during invoke(), so this marker is seen last
+        notificationQueue.add(new NotificationWork(stats, null, null, null, 0));
+        return stats;
+    }
+
+    int getParallelism() {
+        return pool.getParallelism();
+    }
+
+    // Pending notification ranges (a backlog here means the rate limit is the bottleneck)
+    int getNotificationBacklog() {
+        return notificationQueue.size();
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+        notifier.interrupt();
+        try {
+            notifier.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int discountRange(long[] totals, int[] basisPoints, long[] discounts, int from, int to) {
+        int invalid = 0;
+        for (int i = from; i < to; i++) {
+            long discount = FixedPointMoney.discount(totals[i], basisPoints[i], roundingMode);
+            discounts[i] = discount;
+            if (discount == FixedPointMoney.INVALID) {
+                invalid++;
+            }
+        }
+        return invalid;
+    }
+
+    // Copies the rows of a finished range that get a notification, with their
+    // discounts, so stage 2 never reads the caller's column
+    private NotificationWork notificationsFor(OrderBatchStats stats, OrderStore orders, long[] discounts,
+            int from, int to) {
+        int count = 0;
+        for (int i = from; i < to; i++) {
+            if (isNotified(discounts[i])) {
+                count++;
+            }
+        }
+        int[] rows = new int[count];
+        long[] amounts = new long[count];
+        for (int i = from, k = 0; k < count; i++) {
+            if (isNotified(discounts[i])) {
+                rows[k] = i;
+                amounts[k++] = discounts[i];
+            }
+        }
+        return new NotificationWork(stats, orders, rows, amounts, count);
+    }
+
+    private boolean isNotified(long discount) {
+        return discount != FixedPointMoney.INVALID && discount >= minDiscountToNotify;
+    }
+
+    private void runNotifications() {
+        try {
+            while (true) {
+                NotificationWork work = notificationQueue.take();
+                if (work.orders == null) {
+                    work.stats.completeNotifications();
+                    continue;
+                }
+                for (int k = 0; k < work.count; k++) {
+                    if (rateLimiter != null && !rateLimiter.acquire()) {
+                        return;
+                    }
+                    Content content = notificationFactory.create(work.orders, work.rows[k], work.discounts[k]);
+                    boolean accepted = pipeline.submit(content, channel) == NotificationPipeline.SubmitResult.ACCEPTED;
+                    work.stats.recordNotification(accepted, System.nanoTime());
+                }
+            }
+        } catch (InterruptedException e) {
+            // closed
+        } finally {
+            // Do not leave waiters hanging on batches that will never be notified,
+            // and do not let them mistake a cut-short batch for a finished one
+            NotificationWork work;
+            while ((work = notificationQueue.poll()) != null) {
+                work.stats.cancelNotifications();
+            }
+        }
+    }
+
+    // Rows of one finished range that get a notification, with their discounts;
+    // orders == null marks the end of a process() call
+    private static final class NotificationWork {
+        final OrderBatchStats stats;
+        final OrderStore orders;
+        final int[] rows;
+        final long[] discounts;
+        final int count;
+
+        NotificationWork(OrderBatchStats stats, OrderStore orders, int[] rows, long[] discounts, int count) {
+            this.stats = stats;
+            this.orders = orders;
+            this.rows = rows;
+            this.discounts = discounts;
+            this.count = count;
+        }
+    }
+
+    // Returns the number of invalid rows in its range
+    private static final class DiscountTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final OrderBatchProcessor processor;
+        private final OrderBatchStats stats;
+        private final OrderStore orders;
+        private final long[] totals;
+        private final int[] basisPoints;
+        private final long[] discounts;
+        private final int from;
+        private final int to;
+
+        DiscountTask(OrderBatchProcessor processor, OrderBatchStats stats, OrderStore orders, long[] totals,
+                int[] basisPoints, long[] discounts, int from, int to) {
+            this.processor = processor;
+            this.stats = stats;
+            this.orders = orders;
+            this.totals = totals;
+            this.basisPoints = basisPoints;
+            this.discounts = discounts;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                int invalid = processor.discountRange(totals, basisPoints, discounts, from, to);
+                processor.notificationQueue.add(processor.notificationsFor(stats, orders, discounts, from, to));
+                return invalid;
+            }
+            int mid = (from + to) >>> 1;
+            DiscountTask left = new DiscountTask(processor, stats, orders, totals, basisPoints, discounts, from, mid);
+            DiscountTask right = new DiscountTask(processor, stats, orders, totals, basisPoints, discounts, mid, to);
+            left.fork();
+            int invalid = right.compute();
+            return invalid + left.join();
+        }
+    }
+
+    static final class Builder {
+        private final NotificationPipeline pipeline;
+        private int parallelism = Runtime.getRuntime().availableProcessors();
+        private NotificationChannel channel = NotificationChannel.EMAIL;
+        private double notificationsPerSecond = 1000;
+        private int burst = 100;
+        private NotificationFactory notificationFactory = DEFAULT_NOTIFICATION;
+        private RoundingMode roundingMode = RoundingMode.HALF_EVEN;
+        private long minDiscountToNotify = 1;
+
+        private Builder(NotificationPipeline pipeline) {
+            if (pipeline == null) {
+                throw new IllegalArgumentException("Notification pipeline cannot be null");
+            }
+            this.pipeline = pipeline;
+        }
+
+        Builder parallelism(int parallelism) {
+            if (parallelism <= 0) {
+                throw new IllegalArgumentException("Parallelism must be positive. Provided: " + parallelism);
+            }
+            this.parallelism = parallelism;
+            return this;
+        }
+
+        Builder channel(NotificationChannel channel) {
+            if (channel == null) {
+                throw new IllegalArgumentException("Channel cannot be null");
+            }
+            this.channel = channel;
+            return this;
+        }
+
+        // 0 disables the rate limit
+        Builder notificationsPerSecond(double notificationsPerSecond, int burst) {
+            if (notificationsPerSecond < 0 || burst <= 0) {
+                throw new IllegalArgumentException("Rate cannot be negative and burst must be positive. Provided: "
+                        + notificationsPerSecond + ", " + burst);
+            }
+            this.notificationsPerSecond = notificationsPerSecond;
+            this.burst = burst;
+            return this;
+        }
+
+        Builder notificationFactory(NotificationFactory notificationFactory) {
+            if (notificationFactory == null) {
+                throw new IllegalArgumentException("Notification factory cannot be null");
+            }
+            this.notificationFactory = notificationFactory;
+            return this;
+        }
+
+        Builder roundingMode(RoundingMode roundingMode) {
+            if (roundingMode == null) {
+                throw new IllegalArgumentException("Rounding mode cannot be null");
+            }
+            this.roundingMode = roundingMode;
+            return this;
+        }
+
+        // Orders whose discount (in minor units) is below this get no notification
+        Builder minDiscountToNotify(long minDiscountToNotify) {
+            this.minDiscountToNotify = minDiscountToNotify;
+            return this;
+        }
+
+        OrderBatchProcessor build() {
+            return new OrderBatchProcessor(this);
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package maintainability;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+// Per-stage counters of one OrderBatchProcessor.process call.
+// The discount fields are final once process() returns. The notification fields
+// keep moving until the rate-limited stage has caught up; awaitNotifications()
+// waits for that. Closing the processor first ends the wait with
+// isNotificationCancelled() set.
+final class OrderBatchStats {
+    final int parallelism;
+    long orders;
+    long invalidOrders;
+    long discountNanos;
+
+    // Written only by the notification stage thread
+    private volatile long notificationsQueued;
+    private volatile long notificationsDropped;
+    private volatile long notificationStartNanos;
+    private volatile long notificationEndNanos;
+    private volatile boolean notificationCancelled;
+    private final CountDownLatch notificationsDone = new CountDownLatch(1);
+
+    OrderBatchStats(int parallelism) {
+        this.parallelism = parallelism;
+    }
+
+    void recordNotification(boolean accepted, long nowNanos) {
+        if (notificationStartNanos == 0) {
+            notificationStartNanos = nowNanos;
+        }
+        if (accepted) {
+            notificationsQueued++;
+        } else {
+            notificationsDropped++;
+        }
+        notificationEndNanos = nowNanos;
+    }
+
+    void completeNotifications() {
+        notificationsDone.countDown();
+    }
+
+    // The processor was closed before the batch was fully notified
+    void cancelNotifications() {
+        notificationCancelled = true;
+        notificationsDone.countDown();
+    }
+
+    // True once the notification stage is done with the batch: every notification
+    // handed to the pipeline, unless isNotificationCancelled()
+    boolean awaitNotifications(long timeout, TimeUnit unit) throws InterruptedException {
+        return notificationsDone.await(timeout, unit);
+    }
+
+    // True if the batch stopped part-way because the processor was closed; the
+    // counters then cover only the notifications sent before that
+    boolean isNotificationCancelled() {
+        return notificationCancelled;
+    }
+
+    int getParallelism() {
+        return parallelism;
+    }
+
+    long getOrderCount() {
+        return orders;
+    }
+
+    // Orders whose total or rate was out of range; they get no discount and no notification
+    long getInvalidOrderCount() {
+        return invalidOrders;
+    }
+
+    long getDiscountNanos() {
+        return discountNanos;
+    }
+
+    double getDiscountOrdersPerSecond() {
+        return discountNanos == 0 ? 0 : orders * 1e9 / discountNanos;
+    }
+
+    // Notifications accepted by the notification pipeline
+    long getNotificationCount() {
+        return notificationsQueued;
+    }
+
+    // Notifications the pipeline refused (full queue with OverflowPolicy.DROP, or closed)
+    long getDroppedNotificationCount() {
+        return notificationsDropped;
+    }
+
+    double getNotificationsPerSecond() {
+        long elapsed = notificationEndNanos - notificationStartNanos;
+        long count = notificationsQueued + notificationsDropped;
+        return elapsed <= 0 ? 0 : (count - 1) * 1e9 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("orders=%d invalid=%d parallelism=%d discount=%.1fms (%.0f orders/s) "
+                + "notifications=%d dropped=%d (%.0f/s)%s", orders, invalidOrders, parallelism, discountNanos / 1e6,
+                getDiscountOrdersPerSecond(), notificationsQueued, notificationsDropped, getNotificationsPerSecond(),
+                notificationCancelled ? " cancelled" : "");
+    }
+}
@@ -0,0 +1,274 @@
+package maintainability;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Secondary index on order date, so "orders between A and B" or "the N newest
+// orders" no longer means calling getOrderDate() on every order.
+// Entries are (date millis, order index) pairs, where the order index is the row
+// in an OrderStore or a position in the caller's own order list.
+//
+// Layout: the bulk of the entries sit in two parallel sorted primitive arrays,
+// with a sparse skip index holding every SKIP_STRIDE-th date, so a lookup is a
+// binary search over the small skip array (which stays in cache) followed by one
+// inside a single block. Live ingest is mostly in date order, and such an insert
+// is a plain append. Out-of-order inserts go to a small sorted buffer that is
+// merged into the main arrays in one linear pass when it fills up; queries look at
+// both and merge their results.
+//
+// Equal dates are kept in insertion order. Not thread-safe: use from one thread
+// or guard externally.
+final class OrderDateIndex {
+
+    private static final int SKIP_SHIFT = 6;
+    private static final int SKIP_STRIDE = 1 << SKIP_SHIFT;
+
+    private final int bufferCapacity;
+
+    private long[] dates;
+    private int[] orders;
+    private int size;
+    private long[] skip; // skip[i] == dates[i * SKIP_STRIDE]
+    private int skipSize;
+
+    private final long[] bufferDates;
+    private final int[] bufferOrders;
+    private int bufferSize;
+
+    private long merges;
+
+    OrderDateIndex() {
+        this(1024, 4096);
+    }
+
+    OrderDateIndex(int initialCapacity, int bufferCapacity) {
+        if (bufferCapacity <= 0) {
+            throw new IllegalArgumentException("Buffer capacity must be positive. Provided: " + bufferCapacity);
+        }
+        int capacity = Math.max(SKIP_STRIDE, initialCapacity);
+        this.dates = new long[capacity];
+        this.orders = new int[capacity];
+        this.skip = new long[capacity / SKIP_STRIDE + 1];
+        this.bufferCapacity = bufferCapacity;
+        this.bufferDates = new long[bufferCapacity];
+        this.bufferOrders = new int[bufferCapacity];
+    }
+
+    // Indexes every row of store, in bulk (one sort instead of one insert per row)
+    static OrderDateIndex of(OrderStore store) {
+        int n = store.size();
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            keys[i] = store.getOrderDateMillis(i);
+        }
+        int[] rows = sortedPermutation(keys);
+        OrderDateIndex index = new OrderDateIndex(n, 4096);
+        for (int i = 0; i < n; i++) {
+            index.append(keys[rows[i]], rows[i]);
+        }
+        return index;
+    }
+
+    void add(long dateMillis, int orderIndex) {
+        // In order against both parts: the buffer is sorted, so its last date is its
+        // maximum. Strictly after it, or a tie would put this entry ahead of an older
+        // buffered one, since main wins ties in queries and merges.
+        if ((size == 0 || dateMillis >= dates[size - 1])
+                && (bufferSize == 0 || dateMillis > bufferDates[bufferSize - 1])) {
+            append(dateMillis, orderIndex);
+            return;
+        }
+        // upperBound keeps equal dates in insertion order
+        int at = upperBound(bufferDates, 0, bufferSize, dateMillis);
+        System.arraycopy(bufferDates, at, bufferDates, at + 1, bufferSize - at);
+        System.arraycopy(bufferOrders, at, bufferOrders, at + 1, bufferSize - at);
+        bufferDates[at] = dateMillis;
+        bufferOrders[at] = orderIndex;
+        if (++bufferSize == bufferCapacity) {
+            mergeBuffer();
+        }
+    }
+
+    int size() {
+        return size + bufferSize;
+    }
+
+    // Number of orders dated in [fromMillis, toMillis)
+    int count(long fromMillis, long toMillis) {
+        if (fromMillis >= toMillis) {
+            return 0;
+        }
+        return lowerBoundMain(toMillis) - lowerBoundMain(fromMillis)
+                + lowerBound(bufferDates, 0, bufferSize, toMillis) - lowerBound(bufferDates, 0, bufferSize, fromMillis);
+    }
+
+    // Passes the order index of every order dated in [fromMillis, toMillis) to
+    // action, oldest first
+    void forEachInRange(long fromMillis, long toMillis, IntConsumer action) {
+        if (fromMillis >= toMillis) {
+            return;
+        }
+        int i = lowerBoundMain(fromMillis);
+        int iEnd = lowerBoundMain(toMillis);
+        int j = lowerBound(bufferDates, 0, bufferSize, fromMillis);
+        int jEnd = lowerBound(bufferDates, 0, bufferSize, toMillis);
+        while (i < iEnd || j < jEnd) {
+            if (j == jEnd || (i < iEnd && dates[i] <= bufferDates[j])) {
+                action.accept(orders[i++]);
+            } else {
+                action.accept(bufferOrders[j++]);
+            }
+        }
+    }
+
+    int[] range(long fromMillis, long toMillis) {
+        int[] result = new int[count(fromMillis, toMillis)];
+        int[] position = new int[1];
+        forEachInRange(fromMillis, toMillis, order -> result[position[0]++] = order);
+        return result;
+    }
+
+    // Order indexes of the n most recent orders, newest first
+    int[] newest(int n) {
+        if (n < 0) {
+            throw new IllegalArgumentException("Count cannot be negative. Provided: " + n);
+        }
+        int[] result = new int[Math.min(n, size())];
+        int i = size - 1;
+        int j = bufferSize - 1;
+        for (int k = 0; k < result.length; k++) {
+            if (j < 0 || (i >= 0 && dates[i] >= bufferDates[j])) {
+                result[k] = orders[i--];
+            } else {
+                result[k] = bufferOrders[j--];
+            }
+        }
+        return result;
+    }
+
+    long getMergeCount() {
+        return merges;
+    }
+
+    // Bytes held by the index arrays (allocated capacity)
+    long getFootprintBytes() {
+        return (long) dates.length * (Long.BYTES + Integer.BYTES) + (long) skip.length * Long.BYTES
+                + (long) bufferCapacity * (Long.BYTES + Integer.BYTES);
+    }
+
+    private void append(long dateMillis, int orderIndex) {
+        if (size == dates.length) {
+            int capacity = dates.length + (dates.length >> 1);
+            dates = Arrays.copyOf(dates, capacity);
+            orders = Arrays.copyOf(orders, capacity);
+        }
+        if ((size & (SKIP_STRIDE - 1)) == 0) {
+            if (skipSize == skip.length) {
+                skip = Arrays.copyOf(skip, skipSize + (skipSize >> 1) + 1);
+            }
+            skip[skipSize++] = dateMillis;
+        }
+        dates[size] = dateMillis;
+        orders[size] = orderIndex;
+        size++;
+    }
+
+    // Merges main and buffer from the back into enlarged arrays, then rebuilds
+    // the skip index: O(size) per merge, once per bufferCapacity out-of-order inserts
+    private void mergeBuffer() {
+        int total = size + bufferSize;
+        long[] mergedDates = total <= dates.length ? dates : Arrays.copyOf(dates, total + (total >> 1));
+        int[] mergedOrders = total <= orders.length ? orders : Arrays.copyOf(orders, mergedDates.length);
+        int i = size - 1;
+        int j = bufferSize - 1;
+        for (int k = total - 1; j >= 0; k--) {
+            // ties go to the buffer first (from the back), keeping insertion order
+            if (i >= 0 && dates[i] > bufferDates[j]) {
+                mergedDates[k] = dates[i];
+                mergedOrders[k] = orders[i--];
+            } else {
+                mergedDates[k] = bufferDates[j];
+                mergedOrders[k] = bufferOrders[j--];
+            }
+        }
+        dates = mergedDates;
+        orders = mergedOrders;
+        size = total;
+        bufferSize = 0;
+        skipSize = (size + SKIP_STRIDE - 1) >>> SKIP_SHIFT;
+        if (skip.length < skipSize) {
+            skip = new long[skipSize + (skipSize >> 1)];
+        }
+        for (int s = 0; s < skipSize; s++) {
+            skip[s] = dates[s << SKIP_SHIFT];
+        }
+        merges++;
+    }
+
+    // First main position whose date is >= key: find the block in the skip
+    // index, then search inside that block only
+    private int lowerBoundMain(long key) {
+        int block = lowerBound(skip, 0, skipSize, key) - 1;
+        if (block < 0) {
+            return 0;
+        }
+        int from = block << SKIP_SHIFT;
+        return lowerBound(dates, from, Math.min(size, from + SKIP_STRIDE), key);
+    }
+
+    private static int lowerBound(long[] a, int from, int to, long key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (a[mid] < key) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    private static int upperBound(long[] a, int from, int to, long key) {
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (a[mid] <= key) {
+                from = mid + 1;
+            } else {
+                to = mid;
+            }
+        }
+        return from;
+    }
+
+    // Row numbers 0..n-1 ordered by key, stable, without boxing: bottom-up
+    // merge sort of the row numbers; input already in date order costs one pass
+    private static int[] sortedPermutation(long[] keys) {
+        int n = keys.length;
+        int[] rows = new int[n];
+        Arrays.setAll(rows, i -> i);
+        boolean sorted = true;
+        for (int i = 1; i < n && sorted; i++) {
+            sorted = keys[i - 1] <= keys[i];
+        }
+        if (sorted) {
+            return rows;
+        }
+        int[] from = rows;
+        int[] to = new int[n];
+        for (int width = 1; width < n; width <<= 1) {
+            for (int lo = 0; lo < n; lo += width << 1) {
+                int mid = Math.min(lo + width, n);
+                int hi = Math.min(lo + (width << 1), n);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    to[k] = j >= hi || (i < mid && keys[from[i]] <= keys[from[j]]) ? from[i++] : from[j++];
+                }
+            }
+            int[] swap = from;
+            from = to;
+            to = swap;
+        }
+        return from;
+    }
+}
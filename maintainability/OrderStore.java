@@ -0,0 +1,194 @@
+package maintainability;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Date;
+
+// Columnar, off-heap storage for Question07 orders.
+// Instead of one object per order (Question07 + String + byte[] + Date), orders
+// are rows in two columns held in direct ByteBuffers: the id as fixed-width
+// zero-padded UTF-8 bytes and the order date as epoch milliseconds in a long.
+// Columns grow in chunks of CHUNK_ORDERS rows, so the store is not limited by the
+// 2 GB size of a single buffer and the heap only holds the chunk references.
+//
+// getOrderId/getOrderDate materialise a String or Date only when called, and
+// view(index) returns a lightweight object with the same getters as Question07
+// for code that wants an order-shaped object.
+//
+// One writer at a time; readers on other threads may read any index below size().
+// Java 17 has no finalised MemorySegment API, so the columns are direct ByteBuffers.
+final class OrderStore {
+
+    static final int CHUNK_ORDERS = 1 << 20;
+    private static final int CHUNK_SHIFT = 20;
+    private static final int CHUNK_MASK = CHUNK_ORDERS - 1;
+
+    private final int idWidth;
+    private ByteBuffer[] idChunks = new ByteBuffer[16];
+    private ByteBuffer[] dateChunks = new ByteBuffer[16];
+    private int chunkCount;
+    private volatile int size;
+
+    // idWidth is the maximum id length in UTF-8 bytes; longer ids are rejected
+    OrderStore(int idWidth) {
+        if (idWidth <= 0 || idWidth > 255) {
+            throw new IllegalArgumentException("Id width must be between 1 and 255 bytes. Provided: " + idWidth);
+        }
+        this.idWidth = idWidth;
+    }
+
+    // Appends an order and returns its index
+    int add(String id, long orderDateMillis) {
+        if (id == null) {
+            throw new IllegalArgumentException("Order id cannot be null");
+        }
+        int index = size;
+        if (index == Integer.MAX_VALUE) {
+            throw new IllegalStateException("Order store is full");
+        }
+        if ((index >>> CHUNK_SHIFT) == chunkCount) {
+            addChunk();
+        }
+        writeId(idChunks[index >>> CHUNK_SHIFT], (index & CHUNK_MASK) * idWidth, id);
+        dateChunks[index >>> CHUNK_SHIFT].putLong((index & CHUNK_MASK) * Long.BYTES, orderDateMillis);
+        size = index + 1; // publishes the row to readers
+        return index;
+    }
+
+    int add(String id, Date orderDate) {
+        if (orderDate == null) {
+            throw new IllegalArgumentException("Order date cannot be null");
+        }
+        return add(id, orderDate.getTime());
+    }
+
+    int size() {
+        return size;
+    }
+
+    String getOrderId(int index) {
+        checkIndex(index);
+        ByteBuffer chunk = idChunks[index >>> CHUNK_SHIFT];
+        int offset = (index & CHUNK_MASK) * idWidth;
+        int length = 0;
+        while (length < idWidth && chunk.get(offset + length) != 0) {
+            length++;
+        }
+        byte[] bytes = new byte[length];
+        chunk.get(offset, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Allocation-free accessor for scans, sorting and indexing
+    long getOrderDateMillis(int index) {
+        checkIndex(index);
+        return dateChunks[index >>> CHUNK_SHIFT].getLong((index & CHUNK_MASK) * Long.BYTES);
+    }
+
+    Date getOrderDate(int index) {
+        return new Date(getOrderDateMillis(index));
+    }
+
+    OrderView view(int index) {
+        checkIndex(index);
+        return new OrderView(this, index);
+    }
+
+    // Off-heap bytes per order (both columns; excludes unused chunk capacity)
+    int getBytesPerOrder() {
+        return idWidth + Long.BYTES;
+    }
+
+    // Off-heap bytes currently reserved, including the unused tail of the last chunk
+    long getReservedBytes() {
+        return (long) chunkCount * CHUNK_ORDERS * getBytesPerOrder();
+    }
+
+    // Heap bytes one order costs as a Question07 object holding a String id of
+    // idLength Latin-1 characters and a Date, on a 64-bit JVM with compressed oops
+    // and compact strings: the order (12-byte header + two references), the String
+    // (header + hash + coder + flags + value reference), its byte[] (16-byte header
+    // + characters) and the Date (header + long + reference), each 8-byte aligned,
+    // plus the reference to the order held by the collection.
+    static long getObjectBytesPerOrder(int idLength) {
+        long order = align(12 + 4 + 4);
+        long string = align(12 + 4 + 1 + 1 + 4);
+        long bytes = align(16 + idLength);
+        long date = align(12 + 8 + 4);
+        return order + string + bytes + date + 4;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    private void addChunk() {
+        if (chunkCount == idChunks.length) {
+            idChunks = Arrays.copyOf(idChunks, chunkCount * 2);
+            dateChunks = Arrays.copyOf(dateChunks, chunkCount * 2);
+        }
+        idChunks[chunkCount] = ByteBuffer.allocateDirect(CHUNK_ORDERS * idWidth);
+        dateChunks[chunkCount] = ByteBuffer.allocateDirect(CHUNK_ORDERS * Long.BYTES).order(ByteOrder.nativeOrder());
+        chunkCount++;
+    }
+
+    // ASCII ids, the common case, are copied char by char without an encoder
+    private void writeId(ByteBuffer chunk, int offset, String id) {
+        int length = id.length();
+        boolean ascii = length <= idWidth;
+        for (int i = 0; ascii && i < length; i++) {
+            char c = id.charAt(i);
+            ascii = c != 0 && c < 0x80;
+        }
+        if (ascii) {
+            for (int i = 0; i < length; i++) {
+                chunk.put(offset + i, (byte) id.charAt(i));
+            }
+        } else {
+            byte[] bytes = id.getBytes(StandardCharsets.UTF_8);
+            if (bytes.length > idWidth) {
+                throw new IllegalArgumentException("Order id is longer than " + idWidth + " bytes: " + id);
+            }
+            if (id.indexOf(0) >= 0) {
+                throw new IllegalArgumentException("Order id cannot contain NUL characters");
+            }
+            chunk.put(offset, bytes);
+            length = bytes.length;
+        }
+        for (int i = length; i < idWidth; i++) {
+            chunk.put(offset + i, (byte) 0);
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Order index " + index + " out of range for size " + size);
+        }
+    }
+
+    // Order-shaped view of one row: 24 bytes on the heap instead of the whole
+    // object graph, with the id and date materialised on each call
+    static final class OrderView {
+        private final OrderStore store;
+        private final int index;
+
+        private OrderView(OrderStore store, int index) {
+            this.store = store;
+            this.index = index;
+        }
+
+        String getOrderId() {
+            return store.getOrderId(index);
+        }
+
+        Date getOrderDate() {
+            return store.getOrderDate(index);
+        }
+
+        int getIndex() {
+            return index;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package maintainability;
+
+import java.util.Date;
+
+// Memory per order of OrderStore against one Question07 object per order, plus
+// the cost of materialising ids and dates back out of the columns.
+// The heap figure is measured (used heap after GC, before and after filling an
+// array of Question07) and printed next to the computed layout estimate.
+// Run: java -Xmx8g maintainability.OrderStoreBenchmark [orders]
+class OrderStoreBenchmark {
+
+    private static final int ID_WIDTH = 16;
+
+    public static void main(String[] args) {
+        int orders = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        long start = 1_700_000_000_000L;
+
+        long before = usedHeap();
+        Question07[] objects = new Question07[orders];
+        for (int i = 0; i < orders; i++) {
+            Question07 order = new Question07();
+            order.id = orderId(i);
+            order.orderDate = new Date(start + i * 1000L);
+            objects[i] = order;
+        }
+        long objectBytes = usedHeap() - before;
+        Benchmarks.sink = objects[orders - 1].getOrderDate().getTime();
+        objects = null;
+
+        before = usedHeap();
+        OrderStore store = new OrderStore(ID_WIDTH);
+        for (int i = 0; i < orders; i++) {
+            store.add(orderId(i), start + i * 1000L);
+        }
+        long storeHeapBytes = usedHeap() - before;
+
+        System.out.printf("%d orders, ids of %d characters%n", orders, orderId(orders - 1).length());
+        System.out.printf("%-40s %8.1f bytes/order (estimate %d)%n", "Question07 objects (heap)",
+                (double) objectBytes / orders, OrderStore.getObjectBytesPerOrder(orderId(orders - 1).length()));
+        System.out.printf("%-40s %8d bytes/order off-heap, %.3f on heap%n", "OrderStore columns",
+                store.getBytesPerOrder(), (double) storeHeapBytes / orders);
+
+        int reads = Math.min(orders, 1_000_000);
+        Benchmarks.measure("OrderStore.getOrderDateMillis", reads, () -> {
+            long sum = 0;
+            for (int i = 0; i < reads; i++) {
+                sum += store.getOrderDateMillis(i);
+            }
+            Benchmarks.sink = sum;
+        });
+        Benchmarks.measure("OrderStore.getOrderId", reads, () -> {
+            long sum = 0;
+            for (int i = 0; i < reads; i++) {
+                sum += store.getOrderId(i).length();
+            }
+            Benchmarks.sink = sum;
+        });
+    }
+
+    private static String orderId(int i) {
+        return "ORD-" + (100_000_000 + i);
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,205 @@
+package maintainability;
+
+import java.security.SecureRandom;
+import java.util.concurrent.locks.StampedLock;
+
+// Primitive hash map from person id to salted PIN hash, backing PinValidationService.
+// Keys, salts and hashes sit interleaved in one long[] per segment (open
+// addressing, linear probing), so a lookup touches one or two cache lines and
+// allocates nothing. The table is split into independent segments, each with its
+// own StampedLock: lookups are optimistic reads that never block or write shared
+// state, and enrolments only lock the one segment they touch, so there is no
+// global lock for validations to queue on.
+//
+// NOTE: A PIN has very few possible values, so no hash makes a leaked table safe
+// on its own. The per-entry salt and the per-store secret pepper (never stored in
+// the table) stop precomputed lookups and make a dump of the table without the
+// process memory useless; persist credentials with a slow KDF instead.
+final class PinCredentialStore {
+
+    // Reserved key marking an empty slot; cannot be used as a person id
+    static final long EMPTY = Long.MIN_VALUE;
+
+    // Result codes of verify()
+    static final int MATCH = 0;
+    static final int MISMATCH = 1;
+    static final int NOT_FOUND = 2;
+
+    private static final int STRIDE = 3; // key, salt, hash
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private final Segment[] segments;
+    private final int segmentMask;
+    private final long pepper;
+    private final SecureRandom random = new SecureRandom();
+
+    PinCredentialStore(int expectedEntries, int concurrencyLevel) {
+        if (expectedEntries < 0) {
+            throw new IllegalArgumentException("Expected entries cannot be negative. Provided: " + expectedEntries);
+        }
+        if (concurrencyLevel <= 0) {
+            throw new IllegalArgumentException("Concurrency level must be positive. Provided: " + concurrencyLevel);
+        }
+        int segmentCount = Integer.highestOneBit(Math.max(1, concurrencyLevel - 1) << 1);
+        this.segments = new Segment[segmentCount];
+        this.segmentMask = segmentCount - 1;
+        int perSegment = Math.max(8, (int) (expectedEntries / segmentCount / LOAD_FACTOR));
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment(Integer.highestOneBit(perSegment - 1) << 1);
+        }
+        this.pepper = random.nextLong();
+    }
+
+    // Adds or replaces the credential for personId.
+    void enroll(long personId, int pin) {
+        if (personId == EMPTY) {
+            throw new IllegalArgumentException("Person id " + EMPTY + " is reserved");
+        }
+        long salt = random.nextLong();
+        long hash = hashPin(salt, pin);
+        long mixed = mix(personId);
+        segments[(int) (mixed >>> 32) & segmentMask].put(personId, mixed, salt, hash);
+    }
+
+    boolean contains(long personId) {
+        return personId != EMPTY && lookup(personId, 0, false) != NOT_FOUND;
+    }
+
+    // Returns one of the MATCH/MISMATCH/NOT_FOUND codes; never allocates.
+    int verify(long personId, int pin) {
+        if (personId == EMPTY) {
+            return NOT_FOUND;
+        }
+        return lookup(personId, pin, true);
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            long stamp = segment.lock.readLock();
+            try {
+                size += segment.size;
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return size;
+    }
+
+    private int lookup(long personId, int pin, boolean checkPin) {
+        long mixed = mix(personId);
+        Segment segment = segments[(int) (mixed >>> 32) & segmentMask];
+        long stamp = segment.lock.tryOptimisticRead();
+        int result = segment.find(personId, mixed, pin, checkPin);
+        if (!segment.lock.validate(stamp)) {
+            // An enrolment raced with us: retry once under the (segment-local) read lock
+            stamp = segment.lock.readLock();
+            try {
+                result = segment.find(personId, mixed, pin, checkPin);
+            } finally {
+                segment.lock.unlockRead(stamp);
+            }
+        }
+        return result;
+    }
+
+    private long hashPin(long salt, int pin) {
+        return mix(mix(salt ^ pepper) + pin);
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private final class Segment {
+        private final StampedLock lock = new StampedLock();
+        private long[] table;
+        private int mask; // slot count - 1
+        private int size;
+
+        Segment(int slots) {
+            this.table = newTable(slots);
+            this.mask = slots - 1;
+        }
+
+        // Called under optimistic read: derives the mask from the table it actually
+        // read and bounds every probe, so a torn read can only produce a wrong answer that
+        // validate() then discards, never an exception or an endless loop.
+        int find(long personId, long mixed, int pin, boolean checkPin) {
+            long[] t = table;
+            int m = t.length / STRIDE - 1;
+            int slot = (int) mixed & m;
+            for (int probes = 0; probes <= m; probes++) {
+                int base = slot * STRIDE;
+                long key = t[base];
+                if (key == personId) {
+                    if (!checkPin) {
+                        return MATCH;
+                    }
+                    return hashPin(t[base + 1], pin) == t[base + 2] ? MATCH : MISMATCH;
+                }
+                if (key == EMPTY) {
+                    return NOT_FOUND;
+                }
+                slot = (slot + 1) & m;
+            }
+            return NOT_FOUND;
+        }
+
+        void put(long personId, long mixed, long salt, long hash) {
+            long stamp = lock.writeLock();
+            try {
+                if ((size + 1) > (mask + 1) * LOAD_FACTOR) {
+                    resize();
+                }
+                if (insert(table, mask, personId, mixed, salt, hash)) {
+                    size++;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        private void resize() {
+            int slots = (mask + 1) << 1;
+            long[] next = newTable(slots);
+            for (int base = 0; base < table.length; base += STRIDE) {
+                long key = table[base];
+                if (key != EMPTY) {
+                    insert(next, slots - 1, key, mix(key), table[base + 1], table[base + 2]);
+                }
+            }
+            table = next;
+            mask = slots - 1;
+        }
+
+        // Returns true when a new key was added, false when an existing one was replaced
+        private boolean insert(long[] t, int m, long personId, long mixed, long salt, long hash) {
+            int slot = (int) mixed & m;
+            while (true) {
+                int base = slot * STRIDE;
+                long key = t[base];
+                if (key == EMPTY || key == personId) {
+                    // Salt and hash first, key last, so a racing optimistic reader
+                    // that sees the key also sees a matching salt/hash pair or fails validation
+                    t[base + 1] = salt;
+                    t[base + 2] = hash;
+                    t[base] = personId;
+                    return key == EMPTY;
+                }
+                slot = (slot + 1) & m;
+            }
+        }
+
+        private long[] newTable(int slots) {
+            long[] t = new long[slots * STRIDE];
+            for (int base = 0; base < t.length; base += STRIDE) {
+                t[base] = EMPTY;
+            }
+            return t;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package maintainability;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Validation throughput of PinValidationService at 1, 8 and 32 threads.
+// With lock-free lookups the ops/s figure should grow with the thread count
+// up to the number of cores.
+// Run: java maintainability.PinValidationBenchmark [people] [validationsPerThread]
+class PinValidationBenchmark {
+
+    public static void main(String[] args) {
+        int people = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int validationsPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+        PinValidationService service = new PinValidationService(new PinCredentialStore(people, 64));
+        for (int id = 0; id < people; id++) {
+            service.enroll(id, pinOf(id));
+        }
+
+        for (int threads : new int[] { 1, 8, 32 }) {
+            Benchmarks.measureConcurrent("validate(id, pin) 90% correct", threads, validationsPerThread, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long successes = 0;
+                for (int i = 0; i < validationsPerThread; i++) {
+                    int id = random.nextInt(people);
+                    int pin = random.nextInt(10) == 0 ? pinOf(id) + 1 : pinOf(id);
+                    if (service.validate(id, pin) == ValidationStatus.SUCCESS) {
+                        successes++;
+                    }
+                }
+                Benchmarks.sink = successes;
+            });
+        }
+    }
+
+    private static int pinOf(int id) {
+        return (id * 7919) % 1_000_000;
+    }
+}
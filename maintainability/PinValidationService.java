@@ -0,0 +1,89 @@
+package maintainability;
+
+// Guard-clause version of Question04.validatePerson backed by PinCredentialStore.
+// Checks run in the same order as the improved answer (system, name, pin) but
+// return a ValidationStatus instead of building a String, and the PIN is checked
+// against the salted hash in the store rather than a raw int on the Person.
+// Takes the person's id and name rather than Question04's Person, which is
+// private to that file.
+// The only shared state is the volatile system flag, the store, whose lookups
+// are lock-free, and the optional FailedAttemptTracker, whose sketch answers
+// people with no recent failures without a lock, so validations scale with the
+// number of cores.
+class PinValidationService {
+    private final PinCredentialStore store;
+    private final FailedAttemptTracker failedAttempts;
+    private volatile boolean systemUp = true;
+
+    PinValidationService(PinCredentialStore store) {
+        this(store, null);
+    }
+
+    // failedAttempts may be null to disable lockout
+    PinValidationService(PinCredentialStore store, FailedAttemptTracker failedAttempts) {
+        if (store == null) {
+            throw new IllegalArgumentException("Credential store cannot be null");
+        }
+        this.store = store;
+        this.failedAttempts = failedAttempts;
+    }
+
+    ValidationStatus validate(long personId, String name, int pin) {
+        if (!systemUp) {
+            return ValidationStatus.SYSTEM_DOWN;
+        }
+        if (name == null || name.isEmpty()) {
+            return ValidationStatus.INVALID_NAME;
+        }
+        return verify(personId, pin);
+    }
+
+    // Id-only fast path for callers that have already resolved the person
+    ValidationStatus validate(long personId, int pin) {
+        if (!systemUp) {
+            return ValidationStatus.SYSTEM_DOWN;
+        }
+        return verify(personId, pin);
+    }
+
+    void enroll(long personId, int pin) {
+        store.enroll(personId, pin);
+    }
+
+    boolean isSystemUp() {
+        return systemUp;
+    }
+
+    void setSystemUp(boolean systemUp) {
+        this.systemUp = systemUp;
+    }
+
+    PinCredentialStore getStore() {
+        return store;
+    }
+
+    FailedAttemptTracker getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    private ValidationStatus verify(long personId, int pin) {
+        // Refuse early: a locked-out guesser costs a table lookup, not a hash
+        if (failedAttempts != null && failedAttempts.isLockedOut(personId)) {
+            return ValidationStatus.LOCKED_OUT;
+        }
+        switch (store.verify(personId, pin)) {
+            case PinCredentialStore.MATCH:
+                if (failedAttempts != null) {
+                    failedAttempts.recordSuccess(personId);
+                }
+                return ValidationStatus.SUCCESS;
+            case PinCredentialStore.MISMATCH:
+                if (failedAttempts != null) {
+                    failedAttempts.recordFailure(personId);
+                }
+                return ValidationStatus.INVALID_PIN;
+            default:
+                return ValidationStatus.UNKNOWN_PERSON;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package maintainability;
+
+// Timings of one RecordPipeline run.
+// Overlap is the share of the shorter stage's busy time that ran concurrently
+// with the other stage: 0 means the stages ran back to back (the old
+// readFile-then-executeQuery behaviour), 1 means the shorter stage was
+// completely hidden behind the longer one.
+final class PipelineStats {
+    long wallNanos;
+    long readerBusyNanos;
+    long readerBlockedNanos;
+    long queryBusyNanos;
+    long firstQueryLatencyNanos;
+    long records;
+    long bytes;
+    long batches;
+    private long totalBatchLatencyNanos;
+    private long maxBatchLatencyNanos;
+
+    void recordBatchLatency(long nanos) {
+        totalBatchLatencyNanos += nanos;
+        if (nanos > maxBatchLatencyNanos) {
+            maxBatchLatencyNanos = nanos;
+        }
+    }
+
+    // End-to-end time from starting to read until the last batch was executed
+    long getWallNanos() {
+        return wallNanos;
+    }
+
+    long getReaderBusyNanos() {
+        return readerBusyNanos;
+    }
+
+    // Time the reader waited for the query stage to recycle a batch (backpressure)
+    long getReaderBlockedNanos() {
+        return readerBlockedNanos;
+    }
+
+    long getQueryBusyNanos() {
+        return queryBusyNanos;
+    }
+
+    // Time from start until the first batch reached the query stage
+    long getFirstQueryLatencyNanos() {
+        return firstQueryLatencyNanos;
+    }
+
+    // Average and worst time from a batch being filled to it being executed
+    long getAverageBatchLatencyNanos() {
+        return batches == 0 ? 0 : totalBatchLatencyNanos / batches;
+    }
+
+    long getMaxBatchLatencyNanos() {
+        return maxBatchLatencyNanos;
+    }
+
+    long getRecordCount() {
+        return records;
+    }
+
+    long getBatchCount() {
+        return batches;
+    }
+
+    double getOverlap() {
+        long shorter = Math.min(readerBusyNanos, queryBusyNanos);
+        if (shorter <= 0) {
+            return 0;
+        }
+        double overlapped = readerBusyNanos + queryBusyNanos - wallNanos;
+        return Math.max(0, Math.min(1, overlapped / shorter));
+    }
+
+    @Override
+    public String toString() {
+        return String.format("records=%d batches=%d wall=%.1fms reader=%.1fms (blocked %.1fms) query=%.1fms "
+                + "firstQuery=%.1fms batchLatency avg=%.2fms max=%.2fms overlap=%.0f%%", records, batches,
+                wallNanos / 1e6, readerBusyNanos / 1e6, readerBlockedNanos / 1e6, queryBusyNanos / 1e6,
+                firstQueryLatencyNanos / 1e6, getAverageBatchLatencyNanos() / 1e6, maxBatchLatencyNanos / 1e6,
+                getOverlap() * 100);
+    }
+}
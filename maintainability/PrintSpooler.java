@@ -0,0 +1,429 @@
+package maintainability;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Print queue for Question10 Printable documents, replacing a synchronous print().
+//
+// Jobs are printed one at a time, in submission order, by a single printing
+// thread. Within a job, the pages are rendered in parallel: each worker of the
+// pool repeatedly takes the next unrendered page number, so pages are started in
+// order and finish in any order. The printing thread waits for the next page in
+// sequence and sends it to the Printer, so the output is always in page order.
+//
+// Memory cap: rendered pages waiting for the printer count against
+// maxInFlightBytes. A worker whose page would exceed the cap waits until the
+// printer catches up, unless its page is the one the printer is waiting for (it
+// always goes through, or a full buffer of later pages could never drain). At
+// most maxInFlightBytes plus one page per worker is held at any time, however
+// large the job.
+final class PrintSpooler implements AutoCloseable {
+
+    // Handle of one submitted document
+    static final class PrintJob {
+        private final Printable document;
+        private final String name;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile int pagesPrinted;
+        private volatile long startNanos;
+        private volatile long endNanos;
+        private volatile Throwable failure;
+
+        private PrintJob(Printable document, String name) {
+            this.document = document;
+            this.name = name;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        // Waits for the job to finish printing; false on timeout
+        boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            return done.await(timeout, unit);
+        }
+
+        boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        // Null unless rendering or printing failed; the job stops at the first failure
+        Throwable getFailure() {
+            return failure;
+        }
+
+        int getPagesPrinted() {
+            return pagesPrinted;
+        }
+
+        // Pages per second from the first page rendered to the last page printed
+        double getPagesPerSecond() {
+            long elapsed = (endNanos == 0 ? System.nanoTime() : endNanos) - startNanos;
+            return startNanos == 0 || elapsed <= 0 ? 0 : pagesPrinted * 1e9 / elapsed;
+        }
+    }
+
+    private static final PrintJob END = new PrintJob(null, "end");
+
+    private final Printer printer;
+    private final long maxInFlightBytes;
+    private final int workers;
+    private final ExecutorService renderPool;
+    private final BlockingQueue<PrintJob> queue = new LinkedBlockingQueue<>();
+    private final Thread printing;
+    private boolean closed; // guarded by queue, so no job is queued behind END
+
+    // Page buffer of the job being printed, guarded by lock
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private long inFlightBytes;
+    private long peakInFlightBytes;
+    private int bufferedPages;
+    private int peakBufferedPages;
+
+    // Written by the printing thread only
+    private volatile long pagesPrinted;
+    private volatile long bytesPrinted;
+    private volatile long busyNanos;
+    private volatile long jobsPrinted;
+    private volatile long jobsFailed;
+
+    private PrintSpooler(Builder builder) {
+        this.printer = builder.printer;
+        this.maxInFlightBytes = builder.maxInFlightBytes;
+        this.workers = builder.workers;
+        this.renderPool = Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "print-render");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.printing = new Thread(this::runPrinting, "print-spooler");
+        printing.setDaemon(true);
+        printing.start();
+    }
+
+    static Builder builder(Printer printer) {
+        return new Builder(printer);
+    }
+
+    PrintJob submit(Printable document) {
+        return submit(document, document.getClass().getSimpleName());
+    }
+
+    PrintJob submit(Printable document, String name) {
+        if (document == null || name == null) {
+            throw new IllegalArgumentException("Document and name cannot be null");
+        }
+        PrintJob job = new PrintJob(document, name);
+        synchronized (queue) {
+            if (closed) {
+                throw new IllegalStateException("Print spooler is closed");
+            }
+            queue.add(job);
+        }
+        return job;
+    }
+
+    // Jobs submitted but not yet started
+    int getQueuedJobCount() {
+        return queue.size();
+    }
+
+    // Rendered pages of the current job waiting for the printer
+    int getBufferedPageCount() {
+        lock.lock();
+        try {
+            return bufferedPages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int getPeakBufferedPageCount() {
+        lock.lock();
+        try {
+            return peakBufferedPages;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getInFlightBytes() {
+        lock.lock();
+        try {
+            return inFlightBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getPeakInFlightBytes() {
+        lock.lock();
+        try {
+            return peakInFlightBytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getPagesPrinted() {
+        return pagesPrinted;
+    }
+
+    long getBytesPrinted() {
+        return bytesPrinted;
+    }
+
+    long getJobsPrinted() {
+        return jobsPrinted;
+    }
+
+    long getJobsFailed() {
+        return jobsFailed;
+    }
+
+    // Pages per second while a job was being printed (idle time excluded)
+    double getPagesPerSecond() {
+        long busy = busyNanos;
+        return busy == 0 ? 0 : pagesPrinted * 1e9 / busy;
+    }
+
+    // Prints every job already submitted, then stops the threads
+    @Override
+    public void close() {
+        synchronized (queue) {
+            if (!closed) {
+                closed = true;
+                queue.add(END);
+            }
+        }
+        try {
+            printing.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            renderPool.shutdownNow();
+        }
+    }
+
+    private void runPrinting() {
+        while (true) {
+            PrintJob job;
+            try {
+                job = queue.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == END) {
+                return;
+            }
+            long start = System.nanoTime();
+            print(job);
+            busyNanos += System.nanoTime() - start;
+            if (job.failure == null) {
+                jobsPrinted++;
+            } else {
+                jobsFailed++;
+            }
+            job.done.countDown();
+        }
+    }
+
+    private void print(PrintJob job) {
+        job.startNanos = System.nanoTime();
+        JobRun run;
+        try {
+            run = new JobRun(job, job.document.getPageCount());
+            printer.startJob(job.name, run.pages);
+        } catch (IOException | RuntimeException e) {
+            job.failure = e;
+            endJob(job, false);
+            return;
+        }
+        for (int i = Math.min(workers, run.pages); i > 0; i--) {
+            renderPool.execute(() -> render(run));
+        }
+        for (int page = 0; page < run.pages; page++) {
+            ByteBuffer content;
+            lock.lock();
+            try {
+                run.nextToPrint = page;
+                changed.signalAll(); // the page may be waiting on the cap
+                while (run.rendered[page] == null && run.failure == null) {
+                    changed.awaitUninterruptibly();
+                }
+                if (run.failure != null) {
+                    break;
+                }
+                content = run.rendered[page];
+                run.rendered[page] = null;
+                bufferedPages--;
+            } finally {
+                lock.unlock();
+            }
+            int bytes = content.remaining();
+            try {
+                printer.printPage(page, content);
+            } catch (IOException | RuntimeException e) {
+                run.fail(e);
+            }
+            lock.lock();
+            try {
+                inFlightBytes -= bytes;
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            if (run.failure != null) {
+                break;
+            }
+            job.pagesPrinted = page + 1;
+            pagesPrinted++;
+            bytesPrinted += bytes;
+        }
+        lock.lock();
+        try {
+            job.failure = run.failure;
+            releaseBuffered(run);
+        } finally {
+            lock.unlock();
+        }
+        endJob(job, job.failure == null);
+    }
+
+    private void endJob(PrintJob job, boolean completed) {
+        try {
+            printer.endJob(completed);
+        } catch (IOException | RuntimeException e) {
+            if (job.failure == null) {
+                job.failure = e;
+            }
+        }
+        job.endNanos = System.nanoTime();
+    }
+
+    // Worker loop: renders the next unclaimed page until the job runs out or fails
+    private void render(JobRun run) {
+        while (true) {
+            int page = run.nextPage.getAndIncrement();
+            if (page >= run.pages || run.failure != null) {
+                return;
+            }
+            ByteBuffer content;
+            try {
+                content = run.job.document.renderPage(page);
+                if (content == null) {
+                    throw new IllegalStateException("Page " + page + " rendered as null");
+                }
+            } catch (Throwable e) {
+                run.fail(e); // anything escaping would leave the printing thread waiting on this page
+                return;
+            }
+            int bytes = content.remaining();
+            lock.lock();
+            try {
+                while (inFlightBytes + bytes > maxInFlightBytes && page != run.nextToPrint && run.failure == null) {
+                    changed.awaitUninterruptibly();
+                }
+                if (run.failure != null) {
+                    return;
+                }
+                inFlightBytes += bytes;
+                peakInFlightBytes = Math.max(peakInFlightBytes, inFlightBytes);
+                run.rendered[page] = content;
+                bufferedPages++;
+                peakBufferedPages = Math.max(peakBufferedPages, bufferedPages);
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Called with lock held: drops pages rendered past a failure
+    private void releaseBuffered(JobRun run) {
+        for (int page = 0; page < run.pages; page++) {
+            ByteBuffer content = run.rendered[page];
+            if (content != null) {
+                inFlightBytes -= content.remaining();
+                bufferedPages--;
+                run.rendered[page] = null;
+            }
+        }
+        changed.signalAll();
+    }
+
+    private final class JobRun {
+        final PrintJob job;
+        final int pages;
+        final ByteBuffer[] rendered; // guarded by lock
+        final AtomicInteger nextPage = new AtomicInteger();
+        int nextToPrint; // guarded by lock
+        volatile Throwable failure;
+
+        JobRun(PrintJob job, int pages) {
+            if (pages < 0) {
+                throw new IllegalArgumentException("Page count cannot be negative. Provided: " + pages);
+            }
+            this.job = job;
+            this.pages = pages;
+            this.rendered = new ByteBuffer[pages];
+        }
+
+        void fail(Throwable error) {
+            lock.lock();
+            try {
+                if (failure == null) {
+                    failure = error;
+                }
+                changed.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    static final class Builder {
+        private final Printer printer;
+        private int workers = Runtime.getRuntime().availableProcessors();
+        private long maxInFlightBytes = 64L << 20;
+
+        private Builder(Printer printer) {
+            if (printer == null) {
+                throw new IllegalArgumentException("Printer cannot be null");
+            }
+            this.printer = printer;
+        }
+
+        Builder workers(int workers) {
+            if (workers <= 0) {
+                throw new IllegalArgumentException("Workers must be positive. Provided: " + workers);
+            }
+            this.workers = workers;
+            return this;
+        }
+
+        // Cap on rendered bytes waiting for the printer
+        Builder maxInFlightBytes(long maxInFlightBytes) {
+            if (maxInFlightBytes <= 0) {
+                throw new IllegalArgumentException("Max in-flight bytes must be positive. Provided: "
+                        + maxInFlightBytes);
+            }
+            this.maxInFlightBytes = maxInFlightBytes;
+            return this;
+        }
+
+        PrintSpooler build() {
+            return new PrintSpooler(this);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package maintainability;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+// Pages per second of PrintSpooler for a CPU-bound synthetic document, by worker
+// count and in-flight cap, printing to a FilePrinter. Also reports the queue
+// depth: the peak number of rendered pages waiting for the printer and the peak
+// bytes they held, which must stay near the cap however long the job is.
+// Without a dir the output goes to a temp directory that is deleted at the end.
+// Run: java maintainability.PrintSpoolerBenchmark [pages] [pageKB] [dir]
+class PrintSpoolerBenchmark {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int pages = args.length > 0 ? Integer.parseInt(args[0]) : 4000;
+        int pageBytes = (args.length > 1 ? Integer.parseInt(args[1]) : 64) << 10;
+        boolean ownDir = args.length <= 2;
+        Path dir = ownDir ? Files.createTempDirectory("spool") : Path.of(args[2]);
+        try {
+            run(pages, pageBytes, dir);
+        } finally {
+            if (ownDir) {
+                Files.deleteIfExists(dir);
+            }
+        }
+    }
+
+    private static void run(int pages, int pageBytes, Path dir) throws IOException, InterruptedException {
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%d pages of %d KB, %d core(s)%n", pages, pageBytes >> 10, cores);
+
+        for (int workers : new int[] { 1, 2, 4, cores * 2 }) {
+            for (long cap : new long[] { 4L * pageBytes, 64L * pageBytes }) {
+                FilePrinter printer = new FilePrinter(dir);
+                PrintSpooler spooler = PrintSpooler.builder(printer).workers(workers).maxInFlightBytes(cap).build();
+                SyntheticDocument document = new SyntheticDocument(pages, pageBytes, spooler);
+                document.print(); // warm-up; jobs print in order, so it is done before the measured one starts
+                PrintSpooler.PrintJob job = spooler.submit(document, "measured");
+                job.await(1, TimeUnit.HOURS);
+                spooler.close();
+                if (job.getFailure() != null) {
+                    throw new IllegalStateException("Job failed", job.getFailure());
+                }
+                System.out.printf("%2d worker(s), cap %5d KB %10.0f pages/s   peak queue %4d pages %8d KB%n",
+                        workers, cap >> 10, job.getPagesPerSecond(), spooler.getPeakBufferedPageCount(),
+                        spooler.getPeakInFlightBytes() >> 10);
+                try (var files = Files.list(dir)) {
+                    for (Path file : (Iterable<Path>) files::iterator) {
+                        Files.delete(file);
+                    }
+                }
+            }
+        }
+    }
+
+    // Each page costs a few rounds of xorshift per byte, standing in for layout and
+    // rasterising. print() queues on a spooler, as Question10's PDFDocument does.
+    private static final class SyntheticDocument implements Printable {
+        private final int pages;
+        private final int pageBytes;
+        private final PrintSpooler spooler;
+
+        SyntheticDocument(int pages, int pageBytes, PrintSpooler spooler) {
+            this.pages = pages;
+            this.pageBytes = pageBytes;
+            this.spooler = spooler;
+        }
+
+        @Override
+        public void print() {
+            spooler.submit(this, "synthetic");
+        }
+
+        @Override
+        public int getPageCount() {
+            return pages;
+        }
+
+        @Override
+        public ByteBuffer renderPage(int page) {
+            ByteBuffer content = ByteBuffer.allocate(pageBytes);
+            long state = page * 0x9E3779B97F4A7C15L + 1;
+            while (content.remaining() >= Long.BYTES) {
+                for (int round = 0; round < 4; round++) {
+                    state ^= state << 13;
+                    state ^= state >>> 7;
+                    state ^= state << 17;
+                }
+                content.putLong(state);
+            }
+            return content.flip();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package maintainability;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// The Printable role from the Question10 ISP redesign: only documents that can be
+// printed implement it. Pages render independently of each other, so a
+// PrintSpooler can render several at once; renderPage must be safe to call from
+// several threads.
+interface Printable {
+    void print();
+
+    int getPageCount();
+
+    // Printer-ready bytes of one page (0-based), from position to limit. The
+    // spooler keeps the buffer until the page is printed, so return a fresh one.
+    ByteBuffer renderPage(int page) throws IOException;
+}
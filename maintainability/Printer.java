@@ -0,0 +1,15 @@
+package maintainability;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+// Output side of a PrintSpooler. Called from the spooler's single printing
+// thread only: startJob, then every page in order, then endJob.
+interface Printer {
+    void startJob(String name, int pages) throws IOException;
+
+    void printPage(int page, ByteBuffer content) throws IOException;
+
+    // completed is false when the job was cut short by a rendering or printing error
+    void endJob(boolean completed) throws IOException;
+}
@@ -62,8 +62,7 @@ BEST PRACTICES:
 
 package maintainability;
 
-import java.text.ParseException;
-import java.text.SimpleDateFormat;
+import java.nio.LongBuffer;
 import java.util.Calendar;
 
 public class Question01 {
@@ -74,54 +73,47 @@ public class Question01 {
         String inputDate = "01/12/2025";
         System.out.println("The Actual Date is: " + inputDate);
 
-        // Specify a Valid Date Format to Match the Given Date
-        SimpleDateFormat dateFormat = new SimpleDateFormat("dd/MM/yyyy");
-
-        // Set the calendar object according to the given Date
-        Calendar calendar = Calendar.getInstance();
-        try {
-            calendar.setTime(dateFormat.parse(inputDate));
-        } catch (ParseException excep) {
-            excep.printStackTrace();
+        // Parse the dd/MM/yyyy Date straight into an epoch day
+        // (no SimpleDateFormat/Calendar allocation, safe to share across threads)
+        int epochDay = DateShiftEngine.parse(inputDate);
+        if (epochDay == DateShiftEngine.INVALID) {
+            System.err.println("Unparseable date: " + inputDate);
+            return;
         }
 
-        // Add Days to Date Using add() Method
-        // ISSUE: Method name is unclear and parameters are confusing (months=0,
-        // weeks=0, days=5)
-        // IMPROVEMENT: Use more descriptive method name and consider modern java.time
-        // API
-        calendar = nowPlusTime(calendar, 0, 0, 5);
-        String modifiedDate = dateFormat.format(calendar.getTime());
+        // Add Days to Date Using pure epoch-day arithmetic
+        int shifted = DateShiftEngine.shift(epochDay, 0, 0, 5);
+        String modifiedDate = DateShiftEngine.format(shifted, new StringBuilder(DateShiftEngine.PATTERN_LENGTH))
+                .toString();
 
         // Print the Modified Date
         System.out.println("The Modified Date is: " + modifiedDate);
     }
 
-    // PROBLEMATIC METHOD: Contains multiple logical errors
-    // ISSUE 1: Method name doesn't clearly indicate it adds time periods
-    // ISSUE 2: Modifies the passed Calendar object (side effects)
-    // ISSUE 3: Uses wrong Calendar constants for months and weeks
+    // COMPATIBILITY WRAPPER: Keeps the original signature for existing callers
+    // FIXED: Months, weeks and days are now applied as real calendar months,
+    // weeks and days by DateShiftEngine (see "CORRECT" notes in the answer above)
+    // NOTE: Still updates and returns the passed Calendar, as callers rely on it;
+    // the time of day is left untouched
     public static Calendar nowPlusTime(Calendar cal, int months, int weeks, int days) {
+        int epochDay = DateShiftEngine.of(cal.get(Calendar.YEAR), cal.get(Calendar.MONTH) + 1,
+                cal.get(Calendar.DAY_OF_MONTH));
 
-        if (months > 0)
-            // BUG: This adds DAYS, not MONTHS! Should use Calendar.MONTH
-            // WRONG: Calendar.DAY_OF_MONTH adds days to the month
-            // CORRECT: cal.add(Calendar.MONTH, months);
-            cal.add(Calendar.DAY_OF_MONTH, months);
+        int packed = DateShiftEngine.toPackedDate(DateShiftEngine.shift(epochDay, months, weeks, days));
+        cal.set(DateShiftEngine.packedYear(packed), DateShiftEngine.packedMonth(packed) - 1,
+                DateShiftEngine.packedDay(packed));
 
-        if (weeks > 0)
-            // BUG: This changes day of week, doesn't add weeks!
-            // WRONG: Calendar.DAY_OF_WEEK sets which day of week (1=Sunday, 2=Monday, etc.)
-            // CORRECT: cal.add(Calendar.WEEK_OF_YEAR, weeks);
-            cal.add(Calendar.DAY_OF_WEEK, weeks);
+        return cal;
+    }
 
-        if (days > 0)
-            // INCONSISTENT: Uses DAY_OF_YEAR instead of DAY_OF_MONTH like above
-            // BETTER: Use Calendar.DAY_OF_MONTH for consistency
-            // MODERN: Use java.time.LocalDate.plusDays() for cleaner code
-            cal.add(Calendar.DAY_OF_YEAR, days);
+    // BULK VARIANT: Re-dates a whole column of epoch days in place, with no
+    // Calendar per row; large arrays are split across the fork-join pool
+    public static void nowPlusTime(int[] epochDays, int months, int weeks, int days) {
+        DateShiftEngine.shiftAll(epochDays, months, weeks, days);
+    }
 
-        return cal;
+    public static void nowPlusTime(LongBuffer epochDays, int months, int weeks, int days) {
+        DateShiftEngine.shiftAll(epochDays, months, weeks, days);
     }
 
 }
\ No newline at end of file
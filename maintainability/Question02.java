@@ -61,29 +61,82 @@ package maintainability;
 
 import javax.swing.text.AbstractDocument.Content;
 
-public class Question02 {
-
-    // SRP VIOLATION: This method has multiple responsibilities
-    // RESPONSIBILITY 1: Deciding which notification type to use (routing logic)
-    // RESPONSIBILITY 2: Handling email sending
-    // RESPONSIBILITY 3: Handling SMS sending
-    // PROBLEM: Any change to email logic, SMS logic, or routing logic requires
-    // modifying this method
+public class Question02 implements AutoCloseable {
+
+    // SRP APPLIED: Routing, batching and the per-channel senders now live in
+    // NotificationPipeline and NotificationSender implementations; this class
+    // only maps the legacy boolean flag onto a channel
+    private final NotificationPipeline pipeline;
+
+    // Optional dedup layer in front of the pipeline; null sends every message
+    private final NotificationDeduplicator deduplicator;
+
+    // Only a pipeline built by the default constructor is closed by close()
+    private final boolean ownsPipeline;
+
+    // Default wiring keeps the original behaviour (both branches were no-ops)
+    // while still exercising the asynchronous path; identical messages on the
+    // same channel within one second are folded into one
+    public Question02() {
+        this(NotificationPipeline.builder()
+                .sender(NotificationChannel.EMAIL, batch -> {
+                    // send email batch
+                })
+                .sender(NotificationChannel.SMS, batch -> {
+                    // send SMS batch
+                })
+                .build(), 1000, 10_000, true);
+    }
+
+    Question02(NotificationPipeline pipeline) {
+        this.pipeline = pipeline;
+        this.deduplicator = null;
+        this.ownsPipeline = false;
+    }
+
+    Question02(NotificationPipeline pipeline, long dedupWindowMillis, int maxDedupEntries) {
+        this(pipeline, dedupWindowMillis, maxDedupEntries, false);
+    }
+
+    private Question02(NotificationPipeline pipeline, long dedupWindowMillis, int maxDedupEntries,
+            boolean ownsPipeline) {
+        this.pipeline = pipeline;
+        this.deduplicator = new NotificationDeduplicator(pipeline, dedupWindowMillis, maxDedupEntries);
+        this.ownsPipeline = ownsPipeline;
+    }
+
+    // ASYNCHRONOUS: Queues the message on the channel's bounded queue and returns;
+    // a slow email send no longer blocks the caller thread
+    // NOTE: With OverflowPolicy.DROP a full queue drops the message - check
+    // pipeline.isUnderPressure(channel) to shed optional traffic earlier
     void sendNotification(Content content, boolean isEmail) {
-        if (isEmail) {
-            // RESPONSIBILITY 2: Email sending logic
-            // ISSUE: Email implementation details mixed with routing logic
-            // IMPROVEMENT: Extract to separate EmailNotificationSender class
-            // send email
+        NotificationChannel channel = NotificationChannel.of(isEmail);
+        if (deduplicator != null) {
+            deduplicator.submit(content, channel);
         } else {
-            // RESPONSIBILITY 3: SMS sending logic
-            // ISSUE: SMS implementation details mixed with routing logic
-            // IMPROVEMENT: Extract to separate SMSNotificationSender class
-            // send SMS
+            pipeline.submit(content, channel);
+        }
+    }
+
+    NotificationPipeline getPipeline() {
+        return pipeline;
+    }
+
+    // Hit/miss counters live here; null when dedup is disabled
+    NotificationDeduplicator getDeduplicator() {
+        return deduplicator;
+    }
+
+    // Sends everything already accepted and stops the dedup flusher and the
+    // worker threads of a pipeline this instance created
+    @Override
+    public void close() {
+        if (deduplicator != null) {
+            deduplicator.close(); // its pending folded duplicates go to the pipeline first
+        }
+        if (ownsPipeline) {
+            pipeline.close();
         }
-        // MISSING: What if we need to add Push notifications, Slack notifications,
-        // etc.?
-        // This method would keep growing and violating SRP further
     }
 
 }
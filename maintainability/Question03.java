@@ -80,6 +80,8 @@ try {
 
 package maintainability;
 
+import java.math.RoundingMode;
+
 public class Question03 {
     private double total;
 
@@ -104,4 +106,18 @@ public class Question03 {
         return total;
     }
 
+    // BATCH VERSION: Same validation rules as the answer above, applied to whole
+    // columns of line items; invalid rows are flagged in invalidMask (see
+    // DiscountBatch.isInvalid) instead of throwing IllegalArgumentException
+    static int calculateDiscounts(double[] totals, double[] discountRates, double[] discounts, long[] invalidMask) {
+        return DiscountBatch.calculateDiscounts(totals, discountRates, discounts, invalidMask);
+    }
+
+    // FIXED-POINT MODE: Total as long minor units and the discount as basis points
+    // (15.5% = 1550); exact integer math with an explicit rounding mode, returning
+    // FixedPointMoney.INVALID instead of throwing for bad input
+    static long calculateDiscount(long totalMinorUnits, int discountBasisPoints, RoundingMode roundingMode) {
+        return FixedPointMoney.discount(totalMinorUnits, discountBasisPoints, roundingMode);
+    }
+
 }
@@ -75,42 +75,72 @@ public class Question04 {
     // MISSING: This field should be declared
     private boolean isSystemUp;
 
-    // HIGH CYCLOMATIC COMPLEXITY: This method has complexity of 4
-    // PROBLEM 1: Nested if-else statements create complex control flow
-    // PROBLEM 2: Multiple conditions checked in sequence rather than early returns
-    // PROBLEM 3: Hard to test all code paths
-    // IMPROVEMENT: Use guard clauses (early returns) to reduce nesting
+    // Credentials checked by validate(); PINs are stored as salted hashes
+    private final PinValidationService validationService;
+
+    // Lockout defaults: 5 wrong PINs within 15 minutes per person; the tracker is
+    // a fixed 2 x 2^20 slot sketch (16 MB) plus exact counts for up to 2^16 ids,
+    // however many ids it sees
+    public Question04() {
+        this(new PinValidationService(new PinCredentialStore(1024, Runtime.getRuntime().availableProcessors()),
+                new FailedAttemptTracker(1 << 20, 1 << 16, 15 * 60 * 1000L, 5)));
+    }
+
+    Question04(PinValidationService validationService) {
+        this.validationService = validationService;
+        this.validationService.setSystemUp(isSystemUp);
+    }
+
+    // SIMPLIFIED: Guard clauses in PinValidationService, complexity 1 here;
+    // returns a status code instead of building a String
+    // NOTE: A null person is reported as INVALID_NAME, like an empty name
+    public ValidationStatus validate(Person person, int pin) {
+        if (person == null) {
+            return validationService.validate(0, null, pin);
+        }
+        return validationService.validate(person.getId(), person.getName(), pin);
+    }
+
+    void register(Person person) {
+        validationService.enroll(person.getId(), person.getPin());
+    }
+
+    void setSystemUp(boolean isSystemUp) {
+        this.isSystemUp = isSystemUp;
+        validationService.setSystemUp(isSystemUp);
+    }
+
+    // COMPATIBILITY WRAPPER: Keeps the original String result for existing callers
+    // FIXED: The nested branches (complexity 4) and the inverted empty-name check
+    // are replaced by the guard clauses in PinValidationService
+    // NOTE: A person who was never registered is checked against their own pin,
+    // as before the credential store existed, so the result strings are unchanged
     public String validatePerson(Person person, int pin) {
-        if (isSystemUp) {
-            // NESTED COMPLEXITY: Multiple conditions nested inside system check
-            // BETTER: if (!isSystemUp) return "System is Down"; (guard clause)
-            if (person != null && person.getName().equals("")) {
-                // LOGIC ERROR: This condition seems wrong - empty name should be invalid
-                // LIKELY MEANT: !person.getName().equals("") or person.getName().isEmpty()
-                if (person.getPin() != pin) {
-                    return "Invalid Pin";
-                }
-                return "Person validation successful";
-            } else {
-                return "Invalid name";
-            }
-        } else {
-            return "System is Down";
+        ValidationStatus status = validate(person, pin);
+        if (status == ValidationStatus.UNKNOWN_PERSON) {
+            status = person.getPin() == pin ? ValidationStatus.SUCCESS : ValidationStatus.INVALID_PIN;
         }
-        // IMPROVEMENT: Refactor to:
-        // if (!isSystemUp) return "System is Down";
-        // if (person == null || person.getName().isEmpty()) return "Invalid name";
-        // if (person.getPin() != pin) return "Invalid Pin";
-        // return "Person validation successful";
+        return status.getMessage();
     }
 
 }
 
 // MISSING: Person class definition needed
 class Person {
+    private long id;
     private String name;
     private int pin;
 
+    public Person(long id, String name, int pin) {
+        this.id = id;
+        this.name = name;
+        this.pin = pin;
+    }
+
+    public long getId() {
+        return id;
+    }
+
     public String getName() {
         return name;
     }
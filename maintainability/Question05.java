@@ -62,28 +62,43 @@ BENEFITS:
 
 package maintainability;
 
+import java.time.Instant;
 import java.util.Date;
 
 public class Question05 {
-    // COMPLEX LOGICAL CONDITION: Multiple issues in this method
-    // PROBLEM 1: Complex condition combining null check and comparison
-    // PROBLEM 2: Logic error - compareTo() returns -1, 0, or 1, not arbitrary
-    // numbers
-    // PROBLEM 3: Magic number '1' - should be '0' for "greater than current date"
-    // PROBLEM 4: Confusing logic flow with unnecessary complexity
+
+    // Shared by all instances: one ticker thread, refreshed every 10 ms
+    private static final CoarseClock DEFAULT_CLOCK = new CoarseClock(10);
+
+    private final ExpiryChecker expiryChecker;
+
+    public Question05() {
+        this(new ExpiryChecker(DEFAULT_CLOCK));
+    }
+
+    Question05(ExpiryChecker expiryChecker) {
+        this.expiryChecker = expiryChecker;
+    }
+
+    // SIMPLIFIED: Equivalent to "return date == null || date.before(new Date());"
+    // from the answer, but compares against a cached clock so the per-entry check
+    // allocates no Date and makes no clock syscall
+    // FIXED: No more compareTo(...) > 1 - expiry is a plain "before now" test
     public boolean isDateExpired(Date date) {
+        return expiryChecker.isExpired(date);
+    }
+
+    public boolean isDateExpired(Instant instant) {
+        return expiryChecker.isExpired(instant);
+    }
 
-        // COMPLEX CONDITION: Combines null check with incorrect date comparison
-        // ISSUE: date.compareTo(new Date()) > 1 is WRONG
-        // FIX: Should be date.compareTo(new Date()) > 0 (date is after now)
-        // BETTER: Extract to separate methods for clarity
-        if (date != null && date.compareTo(new Date()) > 1) {
-            return false;
-        }
+    // Primitive fast path for callers that store expiry as epoch millis
+    public boolean isDateExpired(long epochMillis) {
+        return expiryChecker.isExpired(epochMillis);
+    }
 
-        // UNNECESSARY: This could be simplified to single expression
-        // IMPROVEMENT: return date == null || date.before(new Date());
-        return true;
+    ExpiryChecker getExpiryChecker() {
+        return expiryChecker;
     }
 
 }
@@ -74,46 +74,78 @@ package maintainability;
 
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.sql.SQLException;
 
 public class Question06 {
 
-    // CURRENT APPROACH: Separate catch blocks for each exception
-    // PROBLEM 1: Repetitive code structure
-    // PROBLEM 2: Empty catch blocks (bad practice)
-    // PROBLEM 3: No proper error handling or logging
-    // ALTERNATIVE: Use multi-catch syntax (Java 7+)
+    // Shared by every instance: one trace per 1024 failures of a kind, summaries every 10 s
+    private static final ErrorAggregator DEFAULT_ERRORS = new ErrorAggregator(1024, 256, 10_000, System.err::print);
+
+    private final Path file;
+    private final RecordSink recordSink;
+    private final MappedRecordReader reader = new MappedRecordReader();
+    private final RecordPipeline pipeline;
+    private final ErrorAggregator errors;
+    private final int fileErrors;
+    private final int databaseErrors;
+    private volatile PipelineStats lastStats;
+
+    public Question06() {
+        this(Paths.get("file.txt"), new InMemoryRecordSink(), DEFAULT_ERRORS);
+    }
+
+    // Pipeline shape: 4 batches in flight, each up to 1000 records or 1 MB
+    Question06(Path file, RecordSink recordSink, ErrorAggregator errors) {
+        this.file = file;
+        this.recordSink = recordSink;
+        this.pipeline = new RecordPipeline(this::executeQuery, 4, 1000, 1 << 20);
+        this.errors = errors;
+        this.fileErrors = errors.registerSource("readFile");
+        this.databaseErrors = errors.registerSource("executeQuery");
+    }
+
+    // PIPELINED: readFile() runs on a reader thread and hands batches of records
+    // to executeQuery() over a bounded queue while reading continues, instead of
+    // reading everything first and querying afterwards
+    // GROUPED HANDLING: File errors and database errors are handled separately,
+    // as in Option 2 of the answer above
+    // AGGREGATED: Instead of a System.err line per failure, each error is counted
+    // per type and source; only sampled stack traces reach the periodic summary
+    // NOTE: "catch (FileNotFoundException | IOException e)" does not compile -
+    // alternatives in a multi-catch cannot be subclasses of each other - so
+    // catching IOException covers FileNotFoundException as well
     public void processFile() {
-        // Process the file
         try {
-            readFile();
-            executeQuery();
-        } catch (FileNotFoundException e) {
-            // EMPTY CATCH: Bad practice - should log or handle
-            // IMPROVEMENT: Add proper error handling
+            lastStats = pipeline.run(this::readFile);
         } catch (IOException e) {
-            // REPETITIVE: Similar handling as above
-            // BETTER: catch (FileNotFoundException | IOException e)
+            errors.record(fileErrors, e);
         } catch (SQLException e) {
-            // SEPARATE HANDLING: Could be combined if handling is similar
-            // MULTI-CATCH OPTION: catch (IOException | SQLException e)
+            errors.record(databaseErrors, e);
         }
+    }
+
+    // End-to-end latency and read/query overlap of the last successful run
+    PipelineStats getLastStats() {
+        return lastStats;
+    }
 
-        // IMPROVED VERSION using multi-catch:
-        // catch (FileNotFoundException | IOException | SQLException e) {
-        // System.err.println("Operation failed: " + e.getMessage());
-        // logError(e);
-        // }
+    ErrorAggregator getErrors() {
+        return errors;
     }
 
-    private void executeQuery() throws SQLException {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'executeQuery'");
+    // IMPLEMENTED: Executes one batch of records on the configured sink. In
+    // production this is a JdbcRecordSink: pooled connections, a cached
+    // PreparedStatement, JDBC batch inserts and whole-batch retries
+    private void executeQuery(RecordBatch batch) throws SQLException {
+        recordSink.execute(batch);
     }
 
-    private void readFile() throws FileNotFoundException, IOException {
-        // TODO Auto-generated method stub
-        throw new UnsupportedOperationException("Unimplemented method 'readFile'");
+    // IMPLEMENTED: Memory-maps the file window by window and passes each record
+    // to the handler as a byte range (no String per line); see MappedRecordReader
+    private void readFile(MappedRecordReader.RecordHandler handler) throws FileNotFoundException, IOException {
+        reader.read(file, handler);
     }
 
 }
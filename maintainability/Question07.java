@@ -82,6 +82,10 @@ import java.util.Date;
 // PROBLEM: Changes to any of these areas require modifying this class
 public class Question07 {
     // APPROPRIATE: Order data belongs in Order class
+    // NOTE: At hundreds of millions of orders, keep them in an OrderStore instead:
+    // about 108 heap bytes per order here versus 24 off-heap bytes per row there
+    // NOTE: To find orders by date without calling getOrderDate() on each one,
+    // query an OrderDateIndex (range, count, newest N)
     String id;
     Date orderDate;
 
@@ -97,6 +101,8 @@ public class Question07 {
     // SRP VIOLATION: Notification logic doesn't belong in Order class
     // ISSUE: Changes to notification system affect Order class
     // IMPROVEMENT: Extract to OrderNotificationService class
+    // BATCHED: End-of-day runs use OrderBatchProcessor, which sends through a
+    // separate rate-limited stage instead of calling this once per order
     void sendOrderNotification() {
         // This should be in a separate NotificationService class
     }
@@ -104,6 +110,8 @@ public class Question07 {
     // SRP VIOLATION: Business logic doesn't belong in Order class
     // ISSUE: Changes to discount rules affect Order class
     // IMPROVEMENT: Extract to DiscountCalculator class
+    // BATCHED: OrderBatchProcessor computes discounts for a whole OrderStore
+    // across a fork-join pool
     void calculateDiscount() {
         // This should be in a separate DiscountCalculator class
     }
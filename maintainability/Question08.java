@@ -82,63 +82,9 @@ BENEFITS:
 
 package maintainability;
 
-// OCP VIOLATION: Adding new shapes requires modifying this class
-// PROBLEM: Must add new methods for each shape type (Triangle, Pentagon, etc.)
-// IMPROVEMENT: Use polymorphism - each shape calculates its own area
-class CalculateService {
-
-    // VIOLATION: Method specific to Rectangle - breaks OCP
-    // ISSUE: Adding Triangle would require adding calculateTriangleArea()
-    // BETTER: Single calculateArea(Shape shape) method using polymorphism
-    public double calculateRectangleArea(double width, double height) {
-        return width * height;
-
-    }
-
-    // VIOLATION: Method specific to Circle - breaks OCP
-    // ISSUE: Each new shape type needs a new method here
-    // BETTER: Let each shape implement its own calculateArea() method
-    public double calculateCircleArea(double radius) {
-        return Math.PI * Math.pow(radius, 2);
-    }
-
-}
-
-// MISSING BEHAVIOR: Should implement Shape interface with calculateArea()
-// method
-class Circle {
-    private double radius;
-    public double area;
-
-    public Circle(double radius) {
-        this.radius = radius;
-    }
-
-    public double getRadius() {
-        return radius;
-    }
-}
-
-// MISSING BEHAVIOR: Should implement Shape interface with calculateArea()
-// method
-class Rectangle {
-    private double width;
-    private double height;
-    public double area;
-
-    public Rectangle(double width, double height) {
-        this.width = width;
-        this.height = height;
-    }
-
-    public double getWidth() {
-        return width;
-    }
-
-    public double getHeight() {
-        return height;
-    }
-}
+// MOVED: CalculateService, Circle and Rectangle live in their own files so that
+// Shape, ShapeBatch and the benchmarks can use them without auxiliary-class
+// lookups
 
 class Question08 {
     // OCP VIOLATION: Client code must know specific calculation methods
@@ -153,5 +99,13 @@ class Question08 {
         // BETTER: calculateService.calculateArea(rectangle1)
         rectangle1.area = calculateService.calculateRectangleArea(rectangle1.getWidth(), rectangle1.getHeight());
         circle1.area = calculateService.calculateCircleArea(circle1.getRadius());
+
+        // BULK: Tens of millions of shapes go through ShapeBatch instead, which
+        // keeps each kind in primitive columns and computes areas in tight loops
+        ShapeBatch batch = new ShapeBatch();
+        batch.add(rectangle1);
+        batch.add(circle1);
+        batch.computeAreas();
+        System.out.println("Total area: " + batch.getTotalArea());
     }
 }
@@ -77,6 +77,11 @@ BENEFITS:
 
 package maintainability;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
 // ISP VIOLATION: "Fat interface" forces clients to depend on methods they don't use
 // PROBLEM: All implementing classes must provide ALL methods, even unused ones
 // IMPROVEMENT: Split into smaller, focused interfaces (Openable, Saveable, Printable, Emailable)
@@ -97,18 +102,68 @@ interface Document {
 // ISP VIOLATION: Forced to implement sendViaEmail() even though not used
 // PROBLEM: Empty implementation violates ISP
 // IMPROVEMENT: Implement only Openable, Saveable, Printable interfaces
-class PDFDocument implements Document {
+class PDFDocument implements Document, Printable {
+
+    // IMPLEMENTED: Content lives in a DocumentFile (memory-mapped reads, atomic saves)
+    private final DocumentFile file;
+
+    // IMPLEMENTED: print() queues on a PrintSpooler; pages are PRINT_PAGE_BYTES slices
+    static final int PRINT_PAGE_BYTES = 64 << 10;
+    private final PrintSpooler spooler;
+
+    PDFDocument(Path path) {
+        this(path, null);
+    }
+
+    PDFDocument(Path path, PrintSpooler spooler) {
+        this.file = new DocumentFile(path);
+        this.spooler = spooler;
+    }
+
+    DocumentFile getFile() {
+        return file;
+    }
 
+    // IMPLEMENTED: Maps pages lazily, so opening a large document reads nothing yet
     public void open() {
-        // Logic for opening a PDF document
+        try {
+            file.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open " + file.getPath(), e);
+        }
     }
 
+    // IMPLEMENTED: Writes staged content to a temp file and renames it over the document
     public void save() {
-        // Logic for saving a PDF document
+        try {
+            file.save();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot save " + file.getPath(), e);
+        }
     }
 
+    // IMPLEMENTED: Returns once queued; use PrintSpooler.submit for a job handle
     public void print() {
-        // Logic for printing a PDF document
+        if (spooler == null) {
+            throw new IllegalStateException("No print spooler for " + file.getPath());
+        }
+        if (!file.isOpen()) {
+            open();
+        }
+        spooler.submit(this, file.getPath().getFileName().toString());
+    }
+
+    @Override
+    public int getPageCount() {
+        return (int) ((file.size() + PRINT_PAGE_BYTES - 1) / PRINT_PAGE_BYTES);
+    }
+
+    @Override
+    public ByteBuffer renderPage(int page) {
+        long position = (long) page * PRINT_PAGE_BYTES;
+        ByteBuffer content = ByteBuffer.allocate((int) Math.min(PRINT_PAGE_BYTES, file.size() - position));
+        file.read(position, content);
+        return content.flip();
     }
 
     // ISP VIOLATION: Forced to implement unused method
@@ -124,12 +179,33 @@ class PDFDocument implements Document {
 // IMPROVEMENT: Implement only Openable, Saveable, Emailable interfaces
 class WordDocument implements Document {
 
+    // IMPLEMENTED: Content lives in a DocumentFile (memory-mapped reads, atomic saves)
+    private final DocumentFile file;
+
+    WordDocument(Path path) {
+        this.file = new DocumentFile(path);
+    }
+
+    DocumentFile getFile() {
+        return file;
+    }
+
+    // IMPLEMENTED: Maps pages lazily, so opening a large document reads nothing yet
     public void open() {
-        // Logic for opening a Word document
+        try {
+            file.open();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open " + file.getPath(), e);
+        }
     }
 
+    // IMPLEMENTED: Writes staged content to a temp file and renames it over the document
     public void save() {
-        // Logic for saving a Word document
+        try {
+            file.save();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot save " + file.getPath(), e);
+        }
     }
 
     // ISP VIOLATION: Forced to implement unused method
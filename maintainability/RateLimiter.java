@@ -0,0 +1,79 @@
+package maintainability;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+// Lock-free rate limiter for outbound notification traffic.
+// Keeps the time at which the next permit becomes free ("virtual scheduling"):
+// each acquire() moves that time forward by one interval with a CAS and sleeps
+// until its slot arrives. Up to `burst` permits can be taken back to back after an
+// idle period; beyond that callers are spaced one interval apart.
+final class RateLimiter {
+
+    private final long intervalNanos;
+    private final long burstNanos;
+    private final AtomicLong nextFreeNanos;
+
+    RateLimiter(double permitsPerSecond, int burst) {
+        if (!(permitsPerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive. Provided: " + permitsPerSecond);
+        }
+        if (burst <= 0) {
+            throw new IllegalArgumentException("Burst must be positive. Provided: " + burst);
+        }
+        this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstNanos = intervalNanos * (burst - 1);
+        this.nextFreeNanos = new AtomicLong(System.nanoTime() - burstNanos);
+    }
+
+    // Blocks until a permit is available. Returns false if the thread is
+    // interrupted while waiting. The slot was reserved up front, so it is given
+    // back only if no later caller has reserved one since; otherwise it stays
+    // spent and later callers keep their place.
+    boolean acquire() {
+        long slot = reserve();
+        long wait;
+        while ((wait = slot - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, wait);
+            if (Thread.interrupted()) {
+                Thread.currentThread().interrupt();
+                nextFreeNanos.compareAndSet(slot + intervalNanos, slot);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Takes a permit only if one is free right now
+    boolean tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long next = nextFreeNanos.get();
+            long slot = Math.max(next, now - burstNanos);
+            if (slot > now) {
+                return false;
+            }
+            if (nextFreeNanos.compareAndSet(next, slot + intervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    double getPermitsPerSecond() {
+        return (double) TimeUnit.SECONDS.toNanos(1) / intervalNanos;
+    }
+
+    // Claims the next slot; a slot older than the burst allowance is moved up so
+    // idle time cannot be saved up beyond `burst` permits
+    private long reserve() {
+        while (true) {
+            long now = System.nanoTime();
+            long next = nextFreeNanos.get();
+            long slot = Math.max(next, now - burstNanos);
+            if (nextFreeNanos.compareAndSet(next, slot + intervalNanos)) {
+                return slot;
+            }
+        }
+    }
+}
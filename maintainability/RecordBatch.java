@@ -0,0 +1,77 @@
+package maintainability;
+
+import java.nio.ByteBuffer;
+
+// Reusable batch of records handed from the reader stage to the query stage of
+// RecordPipeline. Record bytes are copied into one arena array with parallel
+// offset/length arrays, so filling a batch allocates nothing and the mapped
+// window it came from can be released independently. Batches are recycled
+// through a pool; clear() makes one ready for reuse.
+final class RecordBatch {
+    private byte[] bytes;
+    private final int[] offsets;
+    private final int[] lengths;
+    private int count;
+    private int used;
+    long readyNanos; // when the reader handed the batch off
+
+    RecordBatch(int maxRecords, int maxBytes) {
+        if (maxRecords <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("Batch limits must be positive. Provided: " + maxRecords + " records, "
+                    + maxBytes + " bytes");
+        }
+        this.bytes = new byte[maxBytes];
+        this.offsets = new int[maxRecords];
+        this.lengths = new int[maxRecords];
+    }
+
+    // Copies source[offset, offset + length) into the batch; false when it is full.
+    // A single record larger than the arena is still accepted into an empty batch.
+    boolean add(ByteBuffer source, int offset, int length) {
+        if (count == offsets.length) {
+            return false;
+        }
+        if (used + length > bytes.length) {
+            if (count > 0) {
+                return false;
+            }
+            bytes = new byte[length];
+        }
+        source.get(offset, bytes, used, length);
+        offsets[count] = used;
+        lengths[count] = length;
+        count++;
+        used += length;
+        return true;
+    }
+
+    int size() {
+        return count;
+    }
+
+    boolean isEmpty() {
+        return count == 0;
+    }
+
+    int byteSize() {
+        return used;
+    }
+
+    // Record i is getBytes()[getOffset(i), getOffset(i) + getLength(i))
+    byte[] getBytes() {
+        return bytes;
+    }
+
+    int getOffset(int record) {
+        return offsets[record];
+    }
+
+    int getLength(int record) {
+        return lengths[record];
+    }
+
+    void clear() {
+        count = 0;
+        used = 0;
+    }
+}
@@ -0,0 +1,185 @@
+package maintainability;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.sql.SQLException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+// Two-stage pipeline behind Question06.processFile: a reader thread fills
+// RecordBatches from the file while the calling thread executes the batches
+// already read, so reading and querying overlap instead of running back to back.
+//
+// The handoff is bounded by a fixed pool of `depth` batches: when the query stage
+// falls behind, the reader waits for a batch to be recycled instead of buffering
+// the whole file in memory.
+//
+// Failures: any failure of the reader (IOException, RuntimeException or Error)
+// stops reading, the batches already read are still executed, then the failure
+// is rethrown, so a truncated read never reports success. An SQLException from
+// the sink stops the reader and is rethrown straight away.
+final class RecordPipeline {
+
+    // Reader stage: feeds every record of the input to the handler
+    @FunctionalInterface
+    interface RecordSource {
+        void read(MappedRecordReader.RecordHandler handler) throws IOException;
+    }
+
+    private static final RecordBatch END = new RecordBatch(1, 1);
+
+    private final RecordSink sink;
+    private final int depth;
+    private final int batchRecords;
+    private final int batchBytes;
+
+    RecordPipeline(RecordSink sink, int depth, int batchRecords, int batchBytes) {
+        if (sink == null) {
+            throw new IllegalArgumentException("Sink cannot be null");
+        }
+        if (depth < 2) {
+            throw new IllegalArgumentException("Depth must be at least 2 for the stages to overlap. Provided: " + depth);
+        }
+        this.sink = sink;
+        this.depth = depth;
+        this.batchRecords = batchRecords;
+        this.batchBytes = batchBytes;
+    }
+
+    PipelineStats run(RecordSource source) throws IOException, SQLException {
+        BlockingQueue<RecordBatch> free = new ArrayBlockingQueue<>(depth);
+        BlockingQueue<RecordBatch> full = new ArrayBlockingQueue<>(depth + 1); // + END, so put never blocks
+        for (int i = 0; i < depth; i++) {
+            free.add(new RecordBatch(batchRecords, batchBytes));
+        }
+
+        PipelineStats stats = new PipelineStats();
+        ReaderStage reader = new ReaderStage(source, free, full, stats);
+        Thread readerThread = new Thread(reader, "record-pipeline-reader");
+        readerThread.setDaemon(true);
+
+        long start = System.nanoTime();
+        readerThread.start();
+        try {
+            while (true) {
+                RecordBatch batch = full.take();
+                if (batch == END) {
+                    break;
+                }
+                long executeStart = System.nanoTime();
+                if (stats.batches == 0) {
+                    stats.firstQueryLatencyNanos = executeStart - start;
+                }
+                sink.execute(batch);
+                long executeEnd = System.nanoTime();
+                stats.queryBusyNanos += executeEnd - executeStart;
+                stats.recordBatchLatency(executeEnd - batch.readyNanos);
+                stats.records += batch.size();
+                stats.bytes += batch.byteSize();
+                stats.batches++;
+                batch.clear();
+                free.put(batch);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopReader(readerThread);
+            throw new InterruptedIOException("Interrupted while waiting for the reader stage");
+        } catch (SQLException | RuntimeException e) {
+            stopReader(readerThread);
+            throw e;
+        }
+
+        join(readerThread);
+        stats.wallNanos = System.nanoTime() - start;
+        // Any reader failure, Errors included, fails the run: the counts are truncated
+        Throwable failure = reader.failure;
+        if (failure instanceof IOException) {
+            throw (IOException) failure;
+        }
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        }
+        if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        if (failure != null) {
+            throw new IOException("Reader stage failed", failure); // a checked exception thrown sneakily
+        }
+        return stats;
+    }
+
+    private static void stopReader(Thread readerThread) {
+        readerThread.interrupt();
+        join(readerThread);
+    }
+
+    private static void join(Thread thread) {
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class ReaderStage implements Runnable {
+        private final RecordSource source;
+        private final BlockingQueue<RecordBatch> free;
+        private final BlockingQueue<RecordBatch> full;
+        private final PipelineStats stats;
+        private RecordBatch current;
+        private volatile Throwable failure;
+
+        ReaderStage(RecordSource source, BlockingQueue<RecordBatch> free, BlockingQueue<RecordBatch> full,
+                PipelineStats stats) {
+            this.source = source;
+            this.free = free;
+            this.full = full;
+            this.stats = stats;
+        }
+
+        @Override
+        public void run() {
+            long start = System.nanoTime();
+            try {
+                current = takeFree();
+                source.read((buffer, offset, length) -> {
+                    if (!current.add(buffer, offset, length)) {
+                        handOff(current);
+                        current = takeFree();
+                        current.add(buffer, offset, length);
+                    }
+                });
+                if (!current.isEmpty()) {
+                    handOff(current);
+                }
+            } catch (Throwable e) {
+                failure = e; // rethrown by run() on the query thread
+            } finally {
+                // Published to the query thread by the END handoff below
+                stats.readerBusyNanos = System.nanoTime() - start - stats.readerBlockedNanos;
+                full.add(END);
+            }
+        }
+
+        private RecordBatch takeFree() throws InterruptedIOException {
+            RecordBatch batch = free.poll();
+            if (batch != null) {
+                return batch;
+            }
+            long blockedFrom = System.nanoTime();
+            try {
+                return free.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Pipeline stopped");
+            } finally {
+                stats.readerBlockedNanos += System.nanoTime() - blockedFrom;
+            }
+        }
+
+        private void handOff(RecordBatch batch) {
+            batch.readyNanos = System.nanoTime();
+            full.add(batch); // capacity covers every pooled batch
+        }
+    }
+}
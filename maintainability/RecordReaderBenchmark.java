@@ -0,0 +1,92 @@
+package maintainability;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+// Read throughput (MB/s) of MappedRecordReader against BufferedReader.readLine
+// on a synthetic file of CSV-like lines. Use a size above 2 GB to exercise
+// multi-window mapping; run twice to compare warm-cache numbers.
+// Run: java maintainability.RecordReaderBenchmark [sizeMB] [file]
+class RecordReaderBenchmark {
+
+    public static void main(String[] args) throws IOException {
+        long sizeBytes = (args.length > 0 ? Long.parseLong(args[0]) : 3072L) << 20;
+        Path file;
+        if (args.length > 1) {
+            file = Path.of(args[1]); // kept between runs so it is only generated once
+        } else {
+            file = Files.createTempFile("records", ".csv");
+            file.toFile().deleteOnExit();
+        }
+        if (!Files.exists(file) || Files.size(file) < sizeBytes) {
+            writeSyntheticFile(file, sizeBytes);
+        }
+        long bytes = Files.size(file);
+        System.out.printf("file %s, %d MB%n", file, bytes >> 20);
+
+        MappedRecordReader reader = new MappedRecordReader();
+        report("MappedRecordReader", bytes, () -> {
+            long[] checksum = new long[1];
+            long records = reader.read(file, (buffer, offset, length) -> checksum[0] += length);
+            Benchmarks.sink = checksum[0];
+            return records;
+        });
+
+        report("BufferedReader.readLine", bytes, () -> {
+            long records = 0;
+            long checksum = 0;
+            try (BufferedReader in = Files.newBufferedReader(file, StandardCharsets.ISO_8859_1)) {
+                for (String line = in.readLine(); line != null; line = in.readLine()) {
+                    checksum += line.length();
+                    records++;
+                }
+            }
+            Benchmarks.sink = checksum;
+            return records;
+        });
+    }
+
+    @FunctionalInterface
+    private interface Pass {
+        long run() throws IOException;
+    }
+
+    // Files this large take seconds per pass, so one warm-up and three timed passes
+    private static void report(String name, long bytes, Pass pass) throws IOException {
+        pass.run();
+        long best = Long.MAX_VALUE;
+        long records = 0;
+        for (int i = 0; i < 3; i++) {
+            long start = System.nanoTime();
+            records = pass.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        System.out.printf("%-40s %10.1f MB/s %14d records%n", name, (bytes / 1048576.0) / (best / 1e9), records);
+    }
+
+    private static void writeSyntheticFile(Path file, long sizeBytes) {
+        Random random = new Random(42);
+        byte[] line = new byte[128];
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file), 1 << 20)) {
+            long written = 0;
+            while (written < sizeBytes) {
+                int length = 20 + random.nextInt(100);
+                for (int i = 0; i < length; i++) {
+                    line[i] = (byte) (i % 10 == 9 ? ',' : 'a' + random.nextInt(26));
+                }
+                line[length] = '\n';
+                out.write(line, 0, length + 1);
+                written += length + 1;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
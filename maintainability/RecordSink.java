@@ -0,0 +1,11 @@
+package maintainability;
+
+import java.sql.SQLException;
+
+// Query stage of Question06: receives batches of records to write to the database.
+// The batch is recycled once execute() returns, so implementations must copy
+// anything they keep.
+@FunctionalInterface
+interface RecordSink {
+    void execute(RecordBatch batch) throws SQLException;
+}
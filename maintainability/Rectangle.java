@@ -0,0 +1,27 @@
+package maintainability;
+
+// FIXED: Implements Shape (final, as Shape is sealed); CalculateService's
+// per-kind methods are kept for existing callers
+final class Rectangle implements Shape {
+    private double width;
+    private double height;
+    public double area;
+
+    public Rectangle(double width, double height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public double getWidth() {
+        return width;
+    }
+
+    public double getHeight() {
+        return height;
+    }
+
+    @Override
+    public double calculateArea() {
+        return width * height;
+    }
+}
@@ -0,0 +1,65 @@
+package maintainability;
+
+import java.util.Random;
+
+// Area of a mixed population of rectangles and circles three ways: the original
+// per-kind CalculateService calls stored into each object's area field, the
+// answer's polymorphic Shape.calculateArea() over a Shape[], and ShapeBatch's
+// per-kind primitive columns.
+// Run: java maintainability.ShapeAreaBenchmark [shapes]
+class ShapeAreaBenchmark {
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 10_000_000;
+        Random random = new Random(42);
+        Shape[] shapes = new Shape[count];
+        ShapeBatch batch = new ShapeBatch(count / 2);
+        for (int i = 0; i < count; i++) {
+            Shape shape = random.nextBoolean()
+                    ? new Rectangle(1 + random.nextDouble() * 10, 1 + random.nextDouble() * 10)
+                    : new Circle(1 + random.nextDouble() * 5);
+            shapes[i] = shape;
+            batch.add(shape);
+        }
+        double[] areas = new double[count];
+        CalculateService service = new CalculateService();
+
+        Benchmarks.measure("CalculateService per kind", count, () -> {
+            double last = 0;
+            for (Shape shape : shapes) {
+                if (shape instanceof Rectangle) {
+                    Rectangle rectangle = (Rectangle) shape;
+                    last = rectangle.area = service.calculateRectangleArea(rectangle.getWidth(), rectangle.getHeight());
+                } else {
+                    Circle circle = (Circle) shape;
+                    last = circle.area = service.calculateCircleArea(circle.getRadius());
+                }
+            }
+            Benchmarks.sink = Double.doubleToLongBits(last);
+        });
+
+        Benchmarks.measure("Shape.calculateArea() (polymorphic)", count, () -> {
+            for (int i = 0; i < count; i++) {
+                areas[i] = shapes[i].calculateArea();
+            }
+            Benchmarks.sink = Double.doubleToLongBits(areas[count - 1]);
+        });
+
+        Benchmarks.measure("Shape.areaOf() (sealed type tests)", count, () -> {
+            for (int i = 0; i < count; i++) {
+                areas[i] = Shape.areaOf(shapes[i]);
+            }
+            Benchmarks.sink = Double.doubleToLongBits(areas[count - 1]);
+        });
+
+        Benchmarks.measure("ShapeBatch.computeAreas (SoA)", count, () -> {
+            batch.computeAreas();
+            Benchmarks.sink = Double.doubleToLongBits(batch.getCircleArea(0));
+        });
+
+        Benchmarks.measure("ShapeBatch.computeAreas + total", count, () -> {
+            batch.computeAreas();
+            Benchmarks.sink = Double.doubleToLongBits(batch.getTotalArea());
+        });
+    }
+}
@@ -0,0 +1,158 @@
+package maintainability;
+
+import java.util.Arrays;
+
+// Structure-of-arrays store for bulk area work over Question08 shapes.
+// Instead of one Rectangle or Circle object per shape and a virtual
+// calculateArea() call each, shapes are grouped by kind into parallel primitive
+// columns (widths/heights for rectangles, radii for circles) and computeAreas()
+// fills an area column per kind with one branch-free loop. Loops of this shape
+// (same-index loads, multiply, store) are unrolled and vectorized by the JIT's
+// superword pass, so no per-shape call, type check or pointer chase remains.
+//
+// Shapes keep their insertion index within their kind. Not thread-safe.
+final class ShapeBatch {
+
+    private double[] widths;
+    private double[] heights;
+    private double[] rectangleAreas;
+    private int rectangleCount;
+
+    private double[] radii;
+    private double[] circleAreas;
+    private int circleCount;
+
+    private boolean areasValid;
+
+    ShapeBatch() {
+        this(1024);
+    }
+
+    ShapeBatch(int initialCapacity) {
+        int capacity = Math.max(16, initialCapacity);
+        this.widths = new double[capacity];
+        this.heights = new double[capacity];
+        this.rectangleAreas = new double[capacity];
+        this.radii = new double[capacity];
+        this.circleAreas = new double[capacity];
+    }
+
+    // Returns the rectangle's index among rectangles
+    int addRectangle(double width, double height) {
+        if (rectangleCount == widths.length) {
+            int capacity = widths.length << 1;
+            widths = Arrays.copyOf(widths, capacity);
+            heights = Arrays.copyOf(heights, capacity);
+            rectangleAreas = Arrays.copyOf(rectangleAreas, capacity);
+        }
+        widths[rectangleCount] = width;
+        heights[rectangleCount] = height;
+        areasValid = false;
+        return rectangleCount++;
+    }
+
+    // Returns the circle's index among circles
+    int addCircle(double radius) {
+        if (circleCount == radii.length) {
+            int capacity = radii.length << 1;
+            radii = Arrays.copyOf(radii, capacity);
+            circleAreas = Arrays.copyOf(circleAreas, capacity);
+        }
+        radii[circleCount] = radius;
+        areasValid = false;
+        return circleCount++;
+    }
+
+    // Copies the shape's dimensions in; returns its index within its kind
+    int add(Shape shape) {
+        if (shape instanceof Rectangle) {
+            Rectangle rectangle = (Rectangle) shape;
+            return addRectangle(rectangle.getWidth(), rectangle.getHeight());
+        }
+        if (shape instanceof Circle) {
+            return addCircle(((Circle) shape).getRadius());
+        }
+        throw new IllegalArgumentException("Unsupported shape: " + (shape == null ? null : shape.getClass().getName()));
+    }
+
+    void computeAreas() {
+        rectangleAreas(widths, heights, rectangleAreas, 0, rectangleCount);
+        circleAreas(radii, circleAreas, 0, circleCount);
+        areasValid = true;
+    }
+
+    // Kernels over [from, to), usable on any caller-owned columns
+    static void rectangleAreas(double[] widths, double[] heights, double[] areas, int from, int to) {
+        for (int i = from; i < to; i++) {
+            areas[i] = widths[i] * heights[i];
+        }
+    }
+
+    // Math.PI * (r * r) rounds exactly like CalculateService's Math.PI * Math.pow(r, 2)
+    // (HotSpot computes pow(x, 2) as x * x) but, unlike pow, vectorizes
+    static void circleAreas(double[] radii, double[] areas, int from, int to) {
+        for (int i = from; i < to; i++) {
+            double r = radii[i];
+            areas[i] = Math.PI * (r * r);
+        }
+    }
+
+    double getRectangleArea(int index) {
+        checkAreas();
+        if (index < 0 || index >= rectangleCount) {
+            throw new IndexOutOfBoundsException("Rectangle index " + index + " out of range for " + rectangleCount);
+        }
+        return rectangleAreas[index];
+    }
+
+    double getCircleArea(int index) {
+        checkAreas();
+        if (index < 0 || index >= circleCount) {
+            throw new IndexOutOfBoundsException("Circle index " + index + " out of range for " + circleCount);
+        }
+        return circleAreas[index];
+    }
+
+    double getTotalArea() {
+        checkAreas();
+        return sum(rectangleAreas, rectangleCount) + sum(circleAreas, circleCount);
+    }
+
+    int getRectangleCount() {
+        return rectangleCount;
+    }
+
+    int getCircleCount() {
+        return circleCount;
+    }
+
+    int size() {
+        return rectangleCount + circleCount;
+    }
+
+    private void checkAreas() {
+        if (!areasValid) {
+            throw new IllegalStateException("Call computeAreas() after adding shapes");
+        }
+    }
+
+    // Four independent accumulators break the add dependency chain; the JIT
+    // cannot reorder floating-point additions on its own
+    private static double sum(double[] values, int count) {
+        double s0 = 0;
+        double s1 = 0;
+        double s2 = 0;
+        double s3 = 0;
+        int i = 0;
+        for (; i + 3 < count; i += 4) {
+            s0 += values[i];
+            s1 += values[i + 1];
+            s2 += values[i + 2];
+            s3 += values[i + 3];
+        }
+        for (; i < count; i++) {
+            s0 += values[i];
+        }
+        return (s0 + s1) + (s2 + s3);
+    }
+}
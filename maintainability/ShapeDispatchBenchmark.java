@@ -0,0 +1,342 @@
+package maintainability;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+// Cost of the Question08 area call site as it sees more shape kinds, for three
+// ways to dispatch on the kind:
+//   interface - virtual Shape.calculateArea(), as in the answer. Inlined while the
+//               site sees one or two classes, a vtable/itable call beyond that.
+//   sealed    - a sealed interface of records, dispatched by an instanceof chain
+//               (pattern matching for switch is only a preview feature on Java 17;
+//               its typeSwitch bootstrap does the same class tests).
+//   tag       - one final class with an int kind, dispatched by a switch that
+//               compiles to a jump table.
+// Each run fills an array with a random mix of 1..8 kinds and sums the areas.
+//
+// A JIT type profile, once polluted, stays megamorphic, so without arguments each
+// (design, kinds) pair runs in a fresh JVM, as JMH forks do.
+// Run: java maintainability.ShapeDispatchBenchmark [design kinds [shapes]]
+class ShapeDispatchBenchmark {
+
+    private static final String[] DESIGNS = { "interface", "sealed", "tag" };
+    private static final int[] KINDS = { 1, 2, 3, 4, 6, 8 };
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length >= 2) {
+            int shapes = args.length > 2 ? Integer.parseInt(args[2]) : 1 << 20;
+            run(args[0], Integer.parseInt(args[1]), shapes);
+            return;
+        }
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        for (String design : DESIGNS) {
+            for (int kinds : KINDS) {
+                List<String> command = new ArrayList<>(List.of(java, "-cp", System.getProperty("java.class.path"),
+                        ShapeDispatchBenchmark.class.getName(), design, Integer.toString(kinds)));
+                Process fork = new ProcessBuilder(command).redirectErrorStream(true).start();
+                try (BufferedReader out = new BufferedReader(new InputStreamReader(fork.getInputStream()))) {
+                    out.lines().forEach(System.out::println);
+                }
+                fork.waitFor();
+            }
+        }
+    }
+
+    private static void run(String design, int kinds, int shapes) {
+        if (kinds < 1 || kinds > 8) {
+            throw new IllegalArgumentException("Kinds must be between 1 and 8. Provided: " + kinds);
+        }
+        Random random = new Random(42);
+        int[] kindOf = new int[shapes];
+        double[] a = new double[shapes];
+        double[] b = new double[shapes];
+        for (int i = 0; i < shapes; i++) {
+            kindOf[i] = random.nextInt(kinds);
+            a[i] = 1 + random.nextDouble() * 10;
+            b[i] = 1 + random.nextDouble() * 10;
+        }
+        String name = design + ", " + kinds + " kind" + (kinds == 1 ? "" : "s");
+        switch (design) {
+            case "interface": {
+                AreaShape[] array = new AreaShape[shapes];
+                for (int i = 0; i < shapes; i++) {
+                    array[i] = AreaShape.of(kindOf[i], a[i], b[i]);
+                }
+                Benchmarks.measure(name, shapes, () -> {
+                    double total = 0;
+                    for (AreaShape shape : array) {
+                        total += shape.calculateArea();
+                    }
+                    Benchmarks.sink = Double.doubleToLongBits(total);
+                });
+                break;
+            }
+            case "sealed": {
+                SealedShape[] array = new SealedShape[shapes];
+                for (int i = 0; i < shapes; i++) {
+                    array[i] = SealedShape.of(kindOf[i], a[i], b[i]);
+                }
+                Benchmarks.measure(name, shapes, () -> {
+                    double total = 0;
+                    for (SealedShape shape : array) {
+                        total += SealedShape.area(shape);
+                    }
+                    Benchmarks.sink = Double.doubleToLongBits(total);
+                });
+                break;
+            }
+            case "tag": {
+                TaggedShape[] array = new TaggedShape[shapes];
+                for (int i = 0; i < shapes; i++) {
+                    array[i] = new TaggedShape(kindOf[i], a[i], b[i]);
+                }
+                Benchmarks.measure(name, shapes, () -> {
+                    double total = 0;
+                    for (TaggedShape shape : array) {
+                        total += shape.area();
+                    }
+                    Benchmarks.sink = Double.doubleToLongBits(total);
+                });
+                break;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown design: " + design);
+        }
+    }
+
+    // ---- Interface dispatch -----------------------------------------------
+
+    private interface AreaShape {
+        double calculateArea();
+
+        static AreaShape of(int kind, double a, double b) {
+            switch (kind) {
+                case 0: return new IRectangle(a, b);
+                case 1: return new ICircle(a);
+                case 2: return new ISquare(a);
+                case 3: return new ITriangle(a, b);
+                case 4: return new IEllipse(a, b);
+                case 5: return new IRhombus(a, b);
+                case 6: return new IHexagon(a);
+                default: return new IAnnulus(a + b, b);
+            }
+        }
+    }
+
+    private static final class IRectangle implements AreaShape {
+        private final double width;
+        private final double height;
+
+        IRectangle(double width, double height) {
+            this.width = width;
+            this.height = height;
+        }
+
+        @Override
+        public double calculateArea() {
+            return width * height;
+        }
+    }
+
+    private static final class ICircle implements AreaShape {
+        private final double radius;
+
+        ICircle(double radius) {
+            this.radius = radius;
+        }
+
+        @Override
+        public double calculateArea() {
+            return Math.PI * (radius * radius);
+        }
+    }
+
+    private static final class ISquare implements AreaShape {
+        private final double side;
+
+        ISquare(double side) {
+            this.side = side;
+        }
+
+        @Override
+        public double calculateArea() {
+            return side * side;
+        }
+    }
+
+    private static final class ITriangle implements AreaShape {
+        private final double base;
+        private final double height;
+
+        ITriangle(double base, double height) {
+            this.base = base;
+            this.height = height;
+        }
+
+        @Override
+        public double calculateArea() {
+            return 0.5 * base * height;
+        }
+    }
+
+    private static final class IEllipse implements AreaShape {
+        private final double semiMajor;
+        private final double semiMinor;
+
+        IEllipse(double semiMajor, double semiMinor) {
+            this.semiMajor = semiMajor;
+            this.semiMinor = semiMinor;
+        }
+
+        @Override
+        public double calculateArea() {
+            return Math.PI * semiMajor * semiMinor;
+        }
+    }
+
+    private static final class IRhombus implements AreaShape {
+        private final double diagonal1;
+        private final double diagonal2;
+
+        IRhombus(double diagonal1, double diagonal2) {
+            this.diagonal1 = diagonal1;
+            this.diagonal2 = diagonal2;
+        }
+
+        @Override
+        public double calculateArea() {
+            return 0.5 * diagonal1 * diagonal2;
+        }
+    }
+
+    private static final class IHexagon implements AreaShape {
+        private final double side;
+
+        IHexagon(double side) {
+            this.side = side;
+        }
+
+        @Override
+        public double calculateArea() {
+            return HEXAGON_FACTOR * side * side;
+        }
+    }
+
+    private static final class IAnnulus implements AreaShape {
+        private final double outer;
+        private final double inner;
+
+        IAnnulus(double outer, double inner) {
+            this.outer = outer;
+            this.inner = inner;
+        }
+
+        @Override
+        public double calculateArea() {
+            return Math.PI * (outer * outer - inner * inner);
+        }
+    }
+
+    private static final double HEXAGON_FACTOR = 1.5 * Math.sqrt(3);
+
+    // ---- Sealed interface + type tests --------------------------------------
+
+    private sealed interface SealedShape {
+        static SealedShape of(int kind, double a, double b) {
+            switch (kind) {
+                case 0: return new SRectangle(a, b);
+                case 1: return new SCircle(a);
+                case 2: return new SSquare(a);
+                case 3: return new STriangle(a, b);
+                case 4: return new SEllipse(a, b);
+                case 5: return new SRhombus(a, b);
+                case 6: return new SHexagon(a);
+                default: return new SAnnulus(a + b, b);
+            }
+        }
+
+        static double area(SealedShape shape) {
+            if (shape instanceof SRectangle) {
+                SRectangle s = (SRectangle) shape;
+                return s.width() * s.height();
+            } else if (shape instanceof SCircle) {
+                double r = ((SCircle) shape).radius();
+                return Math.PI * (r * r);
+            } else if (shape instanceof SSquare) {
+                double side = ((SSquare) shape).side();
+                return side * side;
+            } else if (shape instanceof STriangle) {
+                STriangle s = (STriangle) shape;
+                return 0.5 * s.base() * s.height();
+            } else if (shape instanceof SEllipse) {
+                SEllipse s = (SEllipse) shape;
+                return Math.PI * s.semiMajor() * s.semiMinor();
+            } else if (shape instanceof SRhombus) {
+                SRhombus s = (SRhombus) shape;
+                return 0.5 * s.diagonal1() * s.diagonal2();
+            } else if (shape instanceof SHexagon) {
+                double side = ((SHexagon) shape).side();
+                return HEXAGON_FACTOR * side * side;
+            } else {
+                SAnnulus s = (SAnnulus) shape;
+                return Math.PI * (s.outer() * s.outer() - s.inner() * s.inner());
+            }
+        }
+    }
+
+    private record SRectangle(double width, double height) implements SealedShape {
+    }
+
+    private record SCircle(double radius) implements SealedShape {
+    }
+
+    private record SSquare(double side) implements SealedShape {
+    }
+
+    private record STriangle(double base, double height) implements SealedShape {
+    }
+
+    private record SEllipse(double semiMajor, double semiMinor) implements SealedShape {
+    }
+
+    private record SRhombus(double diagonal1, double diagonal2) implements SealedShape {
+    }
+
+    private record SHexagon(double side) implements SealedShape {
+    }
+
+    private record SAnnulus(double outer, double inner) implements SealedShape {
+    }
+
+    // ---- Type tag + jump table --------------------------------------------
+
+    private static final class TaggedShape {
+        private final int kind;
+        private final double a;
+        private final double b;
+
+        TaggedShape(int kind, double a, double b) {
+            this.kind = kind;
+            this.a = kind == 7 ? a + b : a;
+            this.b = b;
+        }
+
+        double area() {
+            switch (kind) {
+                case 0: return a * b;
+                case 1: return Math.PI * (a * a);
+                case 2: return a * a;
+                case 3: return 0.5 * a * b;
+                case 4: return Math.PI * a * b;
+                case 5: return 0.5 * a * b;
+                case 6: return HEXAGON_FACTOR * a * a;
+                default: return Math.PI * (a * a - b * b);
+            }
+        }
+    }
+}
@@ -0,0 +1,352 @@
+package maintainability;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+// Bulk-loaded spatial index over positioned Question08 shapes (axis-aligned
+// rectangles and circles), for "total area within a region" and "shapes
+// overlapping a point" without a linear scan.
+//
+// STR-packed R-tree (Sort-Tile-Recursive): entries are sorted into vertical
+// slices by x, each slice sorted by y, and packed into leaves of FANOUT entries.
+// Each upper level groups FANOUT consecutive nodes of the level below. The
+// packing is complete, so the tree is implicit: node i of level L covers entries
+// [i * FANOUT^L, (i + 1) * FANOUT^L). No child pointers or node objects are
+// needed; every level is a set of primitive arrays (bounding box and area sum).
+//
+// Every node caches the summed area of its shapes, so a region aggregate adds a
+// whole subtree in one step when the subtree's box lies inside the region and
+// only descends along the region's border.
+//
+// Immutable once built and safe to query from any number of threads.
+final class ShapeIndex {
+
+    static final int FANOUT = 16;
+
+    // Entries in packed order
+    private final double[] minX;
+    private final double[] minY;
+    private final double[] maxX;
+    private final double[] maxY;
+    private final double[] areas;
+    private final boolean[] circles;
+    private final int[] ids;
+    private final int size;
+
+    // Node levels; level 0 is directly above the entries, the last has one root
+    private final double[][] nodeMinX;
+    private final double[][] nodeMinY;
+    private final double[][] nodeMaxX;
+    private final double[][] nodeMaxY;
+    private final double[][] nodeAreas;
+
+    private ShapeIndex(Builder builder) {
+        int n = builder.size;
+        this.size = n;
+        int[] order = strOrder(builder, n);
+        this.minX = new double[n];
+        this.minY = new double[n];
+        this.maxX = new double[n];
+        this.maxY = new double[n];
+        this.areas = new double[n];
+        this.circles = new boolean[n];
+        this.ids = new int[n];
+        for (int i = 0; i < n; i++) {
+            int id = order[i];
+            minX[i] = builder.minX[id];
+            minY[i] = builder.minY[id];
+            maxX[i] = builder.maxX[id];
+            maxY[i] = builder.maxY[id];
+            circles[i] = builder.circles[id];
+            double width = maxX[i] - minX[i];
+            double height = maxY[i] - minY[i];
+            double radius = width / 2;
+            areas[i] = circles[i] ? Math.PI * (radius * radius) : width * height;
+            ids[i] = id;
+        }
+
+        int levels = 1;
+        for (long span = FANOUT; span < n; span *= FANOUT) {
+            levels++;
+        }
+        this.nodeMinX = new double[levels][];
+        this.nodeMinY = new double[levels][];
+        this.nodeMaxX = new double[levels][];
+        this.nodeMaxY = new double[levels][];
+        this.nodeAreas = new double[levels][];
+        double[] childMinX = minX;
+        double[] childMinY = minY;
+        double[] childMaxX = maxX;
+        double[] childMaxY = maxY;
+        double[] childAreas = areas;
+        int children = n;
+        for (int level = 0; level < levels; level++) {
+            int nodes = Math.max(1, (children + FANOUT - 1) / FANOUT);
+            double[] lx = new double[nodes];
+            double[] ly = new double[nodes];
+            double[] hx = new double[nodes];
+            double[] hy = new double[nodes];
+            double[] sum = new double[nodes];
+            for (int node = 0; node < nodes; node++) {
+                double x0 = Double.POSITIVE_INFINITY;
+                double y0 = Double.POSITIVE_INFINITY;
+                double x1 = Double.NEGATIVE_INFINITY;
+                double y1 = Double.NEGATIVE_INFINITY;
+                double total = 0;
+                int end = Math.min(children, (node + 1) * FANOUT);
+                for (int c = node * FANOUT; c < end; c++) {
+                    x0 = Math.min(x0, childMinX[c]);
+                    y0 = Math.min(y0, childMinY[c]);
+                    x1 = Math.max(x1, childMaxX[c]);
+                    y1 = Math.max(y1, childMaxY[c]);
+                    total += childAreas[c];
+                }
+                lx[node] = x0;
+                ly[node] = y0;
+                hx[node] = x1;
+                hy[node] = y1;
+                sum[node] = total;
+            }
+            nodeMinX[level] = childMinX = lx;
+            nodeMinY[level] = childMinY = ly;
+            nodeMaxX[level] = childMaxX = hx;
+            nodeMaxY[level] = childMaxY = hy;
+            nodeAreas[level] = childAreas = sum;
+            children = nodes;
+        }
+    }
+
+    static Builder builder() {
+        return new Builder();
+    }
+
+    int size() {
+        return size;
+    }
+
+    // Summed area of the shapes lying entirely inside [x0, x1] x [y0, y1]
+    double totalAreaWithin(double x0, double y0, double x1, double y1) {
+        if (size == 0) {
+            return 0;
+        }
+        return areaWithin(nodeMinX.length - 1, 0, x0, y0, x1, y1);
+    }
+
+    // Number of shapes lying entirely inside [x0, x1] x [y0, y1]
+    int countWithin(double x0, double y0, double x1, double y1) {
+        if (size == 0) {
+            return 0;
+        }
+        return countWithin(nodeMinX.length - 1, 0, x0, y0, x1, y1);
+    }
+
+    // Passes the id (insertion order in the builder) of every shape that contains
+    // the point (x, y), boundary included
+    void forEachContaining(double x, double y, IntConsumer action) {
+        if (size > 0) {
+            containing(nodeMinX.length - 1, 0, x, y, action);
+        }
+    }
+
+    int countContaining(double x, double y) {
+        int[] count = new int[1];
+        forEachContaining(x, y, id -> count[0]++);
+        return count[0];
+    }
+
+    // Heap bytes of the entry and node arrays
+    long getFootprintBytes() {
+        long bytes = (long) size * (5 * Double.BYTES + 1 + Integer.BYTES);
+        for (double[] level : nodeAreas) {
+            bytes += (long) level.length * 5 * Double.BYTES;
+        }
+        return bytes;
+    }
+
+    private double areaWithin(int level, int node, double x0, double y0, double x1, double y1) {
+        double[] lx = nodeMinX[level];
+        double[] ly = nodeMinY[level];
+        double[] hx = nodeMaxX[level];
+        double[] hy = nodeMaxY[level];
+        if (hx[node] < x0 || lx[node] > x1 || hy[node] < y0 || ly[node] > y1) {
+            return 0;
+        }
+        if (lx[node] >= x0 && hx[node] <= x1 && ly[node] >= y0 && hy[node] <= y1) {
+            return nodeAreas[level][node]; // whole subtree inside: cached sum
+        }
+        double total = 0;
+        if (level == 0) {
+            int end = Math.min(size, (node + 1) * FANOUT);
+            for (int e = node * FANOUT; e < end; e++) {
+                if (minX[e] >= x0 && maxX[e] <= x1 && minY[e] >= y0 && maxY[e] <= y1) {
+                    total += areas[e];
+                }
+            }
+            return total;
+        }
+        int end = Math.min(nodeAreas[level - 1].length, (node + 1) * FANOUT);
+        for (int child = node * FANOUT; child < end; child++) {
+            total += areaWithin(level - 1, child, x0, y0, x1, y1);
+        }
+        return total;
+    }
+
+    private int countWithin(int level, int node, double x0, double y0, double x1, double y1) {
+        double[] lx = nodeMinX[level];
+        double[] ly = nodeMinY[level];
+        double[] hx = nodeMaxX[level];
+        double[] hy = nodeMaxY[level];
+        if (hx[node] < x0 || lx[node] > x1 || hy[node] < y0 || ly[node] > y1) {
+            return 0;
+        }
+        if (lx[node] >= x0 && hx[node] <= x1 && ly[node] >= y0 && hy[node] <= y1) {
+            long span = 1;
+            for (int l = 0; l <= level; l++) {
+                span *= FANOUT;
+            }
+            long first = node * span;
+            return (int) (Math.min(size, first + span) - first); // implicit tree: the range is the count
+        }
+        int count = 0;
+        if (level == 0) {
+            int end = Math.min(size, (node + 1) * FANOUT);
+            for (int e = node * FANOUT; e < end; e++) {
+                if (minX[e] >= x0 && maxX[e] <= x1 && minY[e] >= y0 && maxY[e] <= y1) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        int end = Math.min(nodeAreas[level - 1].length, (node + 1) * FANOUT);
+        for (int child = node * FANOUT; child < end; child++) {
+            count += countWithin(level - 1, child, x0, y0, x1, y1);
+        }
+        return count;
+    }
+
+    private void containing(int level, int node, double x, double y, IntConsumer action) {
+        if (x < nodeMinX[level][node] || x > nodeMaxX[level][node] || y < nodeMinY[level][node]
+                || y > nodeMaxY[level][node]) {
+            return;
+        }
+        if (level == 0) {
+            int end = Math.min(size, (node + 1) * FANOUT);
+            for (int e = node * FANOUT; e < end; e++) {
+                if (x < minX[e] || x > maxX[e] || y < minY[e] || y > maxY[e]) {
+                    continue;
+                }
+                if (circles[e]) {
+                    double radius = (maxX[e] - minX[e]) / 2;
+                    double dx = x - (minX[e] + radius);
+                    double dy = y - (minY[e] + radius);
+                    if (dx * dx + dy * dy > radius * radius) {
+                        continue;
+                    }
+                }
+                action.accept(ids[e]);
+            }
+            return;
+        }
+        int end = Math.min(nodeAreas[level - 1].length, (node + 1) * FANOUT);
+        for (int child = node * FANOUT; child < end; child++) {
+            containing(level - 1, child, x, y, action);
+        }
+    }
+
+    // STR order of the builder's entries. Sort keys are the centre coordinate
+    // narrowed to a float and mapped to an order-preserving int, packed above
+    // the entry id in one long, so each pass is a primitive Arrays.sort. The
+    // narrowing only affects packing quality, never query results.
+    private static int[] strOrder(Builder builder, int n) {
+        long[] keys = new long[n];
+        for (int id = 0; id < n; id++) {
+            keys[id] = sortKey((builder.minX[id] + builder.maxX[id]) / 2, id);
+        }
+        Arrays.sort(keys);
+        int leaves = (n + FANOUT - 1) / FANOUT;
+        int slices = (int) Math.ceil(Math.sqrt(leaves));
+        int sliceSize = slices * FANOUT;
+        int[] order = new int[n];
+        for (int from = 0; from < n; from += sliceSize) {
+            int to = Math.min(n, from + sliceSize);
+            long[] slice = new long[to - from];
+            for (int i = from; i < to; i++) {
+                int id = (int) keys[i];
+                slice[i - from] = sortKey((builder.minY[id] + builder.maxY[id]) / 2, id);
+            }
+            Arrays.sort(slice);
+            for (int i = from; i < to; i++) {
+                order[i] = (int) slice[i - from];
+            }
+        }
+        return order;
+    }
+
+    private static long sortKey(double coordinate, int id) {
+        int bits = Float.floatToIntBits((float) coordinate);
+        bits ^= (bits >> 31) & 0x7fffffff; // negative floats sort in reverse as raw ints
+        return ((long) bits << 32) | id;
+    }
+
+    // Collects shapes before the one-off bulk load. Ids are assigned in insertion order.
+    static final class Builder {
+        private double[] minX = new double[1024];
+        private double[] minY = new double[1024];
+        private double[] maxX = new double[1024];
+        private double[] maxY = new double[1024];
+        private boolean[] circles = new boolean[1024];
+        private int size;
+
+        private Builder() {
+        }
+
+        int addRectangle(double x, double y, double width, double height) {
+            if (!(width >= 0 && height >= 0)) {
+                throw new IllegalArgumentException("Width and height cannot be negative. Provided: " + width + ", "
+                        + height);
+            }
+            return add(x, y, x + width, y + height, false);
+        }
+
+        int addCircle(double centerX, double centerY, double radius) {
+            if (!(radius >= 0)) {
+                throw new IllegalArgumentException("Radius cannot be negative. Provided: " + radius);
+            }
+            return add(centerX - radius, centerY - radius, centerX + radius, centerY + radius, true);
+        }
+
+        // A Question08 shape placed at (x, y): the lower-left corner of a
+        // Rectangle, the centre of a Circle
+        int add(Shape shape, double x, double y) {
+            if (shape instanceof Rectangle) {
+                Rectangle rectangle = (Rectangle) shape;
+                return addRectangle(x, y, rectangle.getWidth(), rectangle.getHeight());
+            }
+            if (shape instanceof Circle) {
+                return addCircle(x, y, ((Circle) shape).getRadius());
+            }
+            throw new IllegalArgumentException("Unsupported shape: " + (shape == null ? null : shape.getClass().getName()));
+        }
+
+        ShapeIndex build() {
+            return new ShapeIndex(this);
+        }
+
+        private int add(double x0, double y0, double x1, double y1, boolean circle) {
+            if (size == minX.length) {
+                int capacity = size << 1;
+                minX = Arrays.copyOf(minX, capacity);
+                minY = Arrays.copyOf(minY, capacity);
+                maxX = Arrays.copyOf(maxX, capacity);
+                maxY = Arrays.copyOf(maxY, capacity);
+                circles = Arrays.copyOf(circles, capacity);
+            }
+            minX[size] = x0;
+            minY[size] = y0;
+            maxX[size] = x1;
+            maxY[size] = y1;
+            circles[size] = circle;
+            return size++;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package maintainability;
+
+import java.util.Random;
+
+// Region-area and point queries over a field of small rectangles and circles:
+// ShapeIndex against a linear scan of the same primitive columns (the best case
+// for a scan; a scan over Shape objects is slower still).
+// Run: java maintainability.ShapeIndexBenchmark [shapes]
+class ShapeIndexBenchmark {
+
+    private static final double WORLD = 100_000;
+
+    public static void main(String[] args) {
+        int count = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Random random = new Random(42);
+        double[] minX = new double[count];
+        double[] minY = new double[count];
+        double[] maxX = new double[count];
+        double[] maxY = new double[count];
+        double[] areas = new double[count];
+        ShapeIndex.Builder builder = ShapeIndex.builder();
+        for (int i = 0; i < count; i++) {
+            double x = random.nextDouble() * WORLD;
+            double y = random.nextDouble() * WORLD;
+            if (random.nextBoolean()) {
+                double width = 1 + random.nextDouble() * 50;
+                double height = 1 + random.nextDouble() * 50;
+                builder.addRectangle(x, y, width, height);
+                minX[i] = x;
+                minY[i] = y;
+                maxX[i] = x + width;
+                maxY[i] = y + height;
+                areas[i] = width * height;
+            } else {
+                double radius = 1 + random.nextDouble() * 25;
+                builder.addCircle(x, y, radius);
+                minX[i] = x - radius;
+                minY[i] = y - radius;
+                maxX[i] = x + radius;
+                maxY[i] = y + radius;
+                areas[i] = Math.PI * (radius * radius);
+            }
+        }
+        long start = System.nanoTime();
+        ShapeIndex index = builder.build();
+        System.out.printf("%d shapes, bulk load %.0f ms, %.1f MB%n", count, (System.nanoTime() - start) / 1e6,
+                index.getFootprintBytes() / 1048576.0);
+
+        int queries = 1000;
+        double[] qx = new double[queries];
+        double[] qy = new double[queries];
+        for (int q = 0; q < queries; q++) {
+            qx[q] = random.nextDouble() * WORLD * 0.8;
+            qy[q] = random.nextDouble() * WORLD * 0.8;
+        }
+        double side = WORLD / 10; // each region covers 1% of the world
+
+        Benchmarks.measure("region area, linear scan", 10, () -> {
+            double total = 0;
+            for (int q = 0; q < 10; q++) {
+                double x0 = qx[q];
+                double y0 = qy[q];
+                for (int i = 0; i < count; i++) {
+                    if (minX[i] >= x0 && maxX[i] <= x0 + side && minY[i] >= y0 && maxY[i] <= y0 + side) {
+                        total += areas[i];
+                    }
+                }
+            }
+            Benchmarks.sink = Double.doubleToLongBits(total);
+        });
+        Benchmarks.measure("region area, ShapeIndex", queries, () -> {
+            double total = 0;
+            for (int q = 0; q < queries; q++) {
+                total += index.totalAreaWithin(qx[q], qy[q], qx[q] + side, qy[q] + side);
+            }
+            Benchmarks.sink = Double.doubleToLongBits(total);
+        });
+        Benchmarks.measure("point query, ShapeIndex", queries, () -> {
+            long hits = 0;
+            for (int q = 0; q < queries; q++) {
+                hits += index.countContaining(qx[q], qy[q]);
+            }
+            Benchmarks.sink = hits;
+        });
+    }
+}
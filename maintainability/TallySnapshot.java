@@ -0,0 +1,47 @@
+package maintainability;
+
+import java.util.Arrays;
+
+// Point-in-time vote counts per candidate from VoteTally.snapshot().
+// Immutable; the counts always add up to getTotal().
+final class TallySnapshot {
+    private final long[] counts;
+    private final long total;
+    private final long takenNanos;
+
+    TallySnapshot(long[] counts, long takenNanos) {
+        this.counts = counts;
+        long sum = 0;
+        for (long count : counts) {
+            sum += count;
+        }
+        this.total = sum;
+        this.takenNanos = takenNanos;
+    }
+
+    long getCount(int candidate) {
+        return counts[candidate];
+    }
+
+    int getCandidateCount() {
+        return counts.length;
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    // System.nanoTime() when the snapshot was completed
+    long getTakenNanos() {
+        return takenNanos;
+    }
+
+    long[] toArray() {
+        return counts.clone();
+    }
+
+    @Override
+    public String toString() {
+        return "TallySnapshot" + Arrays.toString(counts) + " total=" + total;
+    }
+}
@@ -0,0 +1,300 @@
+package maintainability;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Live results for analysts, replacing full recounts over every SingaporeCitizen.
+// Every cadenceMillis the stream takes a VoteTally snapshot (cost: stripes x
+// candidates, independent of the number of voters), diffs it with the previous
+// one and pushes only the candidates that changed to each subscriber. The voting
+// path itself is untouched; the stream samples the counters it already keeps.
+//
+// Non-blocking and coalescing: a subscriber first receives a snapshot, then
+// deltas, delivered on the executor as its Flow demand allows. While a subscriber
+// has no demand (or is still busy with the previous update) new deltas are merged
+// into its one pending update instead of queueing, so a slow subscriber costs
+// O(candidates) memory, never holds up the ticker or other subscribers, and
+// catches up with a single message.
+final class TallyStream implements Flow.Publisher<TallyUpdate>, AutoCloseable {
+
+    private final VoteTally tally;
+    private final Executor executor;
+    private final ScheduledExecutorService ticker;
+    private final List<StreamSubscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    // Ticker state, guarded by this
+    private long[] lastCounts;
+    private long sequence;
+    private final int[] changed;
+    private final long[] changedDeltas;
+    private boolean closed;
+
+    TallyStream(VoteTally tally, long cadenceMillis, Executor executor) {
+        if (tally == null || executor == null) {
+            throw new IllegalArgumentException("Tally and executor cannot be null");
+        }
+        if (cadenceMillis <= 0) {
+            throw new IllegalArgumentException("Cadence must be positive. Provided: " + cadenceMillis);
+        }
+        this.tally = tally;
+        this.executor = executor;
+        this.lastCounts = tally.snapshot().toArray();
+        this.changed = new int[tally.getCandidateCount()];
+        this.changedDeltas = new long[tally.getCandidateCount()];
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "tally-stream-ticker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(this::tick, cadenceMillis, cadenceMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super TallyUpdate> subscriber) {
+        if (subscriber == null) {
+            throw new NullPointerException("Subscriber cannot be null");
+        }
+        StreamSubscription subscription = new StreamSubscription(subscriber, tally.getCandidateCount());
+        boolean accepted;
+        synchronized (this) {
+            accepted = !closed;
+            if (accepted) {
+                subscription.seed(lastCounts, sequence);
+                subscriptions.add(subscription);
+            }
+        }
+        subscriber.onSubscribe(subscription);
+        if (accepted) {
+            subscription.schedule();
+        } else {
+            subscription.complete();
+        }
+    }
+
+    int getSubscriberCount() {
+        return subscriptions.size();
+    }
+
+    // Ticks published so far
+    synchronized long getSequence() {
+        return sequence;
+    }
+
+    // Stops ticking and completes every subscriber once its pending update is delivered
+    @Override
+    public void close() {
+        ticker.shutdownNow();
+        synchronized (this) {
+            closed = true;
+        }
+        for (StreamSubscription subscription : subscriptions) {
+            subscription.complete();
+        }
+    }
+
+    private void tick() {
+        long[] counts = tally.snapshot().toArray();
+        int changes = 0;
+        long tickSequence;
+        synchronized (this) {
+            for (int c = 0; c < counts.length; c++) {
+                long delta = counts[c] - lastCounts[c];
+                if (delta != 0) {
+                    changed[changes] = c;
+                    changedDeltas[changes] = delta;
+                    changes++;
+                }
+            }
+            if (changes == 0) {
+                return; // nothing to publish; quiet periods cost one snapshot per tick
+            }
+            lastCounts = counts;
+            tickSequence = ++sequence;
+            for (StreamSubscription subscription : subscriptions) {
+                subscription.accumulate(changed, changedDeltas, changes, tickSequence);
+            }
+        }
+        for (StreamSubscription subscription : subscriptions) {
+            subscription.schedule();
+        }
+    }
+
+    private final class StreamSubscription implements Flow.Subscription, Runnable {
+        private final Flow.Subscriber<? super TallyUpdate> subscriber;
+
+        // Pending update, guarded by this subscription
+        private final long[] pending;
+        private final boolean[] marked;
+        private final int[] pendingCandidates;
+        private int pendingCount;
+        private boolean pendingSnapshot;
+        private long pendingSequence;
+        private boolean hasPending;
+        private long demand;
+        private boolean completing;
+        private boolean cancelled;
+        private Throwable error; // set by request(n <= 0), signalled by the drain
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        StreamSubscription(Flow.Subscriber<? super TallyUpdate> subscriber, int candidates) {
+            this.subscriber = subscriber;
+            this.pending = new long[candidates];
+            this.marked = new boolean[candidates];
+            this.pendingCandidates = new int[candidates];
+        }
+
+        // First message: the full counts as of the last tick
+        synchronized void seed(long[] counts, long sequence) {
+            for (int c = 0; c < counts.length; c++) {
+                pending[c] = counts[c];
+                marked[c] = true;
+                pendingCandidates[c] = c;
+            }
+            pendingCount = counts.length;
+            pendingSnapshot = true;
+            pendingSequence = sequence;
+            hasPending = true;
+        }
+
+        // O(changes): folds one tick into the pending update
+        synchronized void accumulate(int[] candidates, long[] deltas, int count, long sequence) {
+            if (cancelled || error != null) {
+                return;
+            }
+            for (int i = 0; i < count; i++) {
+                int c = candidates[i];
+                if (!marked[c]) {
+                    marked[c] = true;
+                    pendingCandidates[pendingCount++] = c;
+                }
+                pending[c] += deltas[i];
+            }
+            pendingSequence = sequence;
+            hasPending = true;
+        }
+
+        void complete() {
+            synchronized (this) {
+                completing = true;
+            }
+            schedule();
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                // Signalled from the drain, not here: request() may be called from
+                // any thread, and onError must not overlap an onNext (Flow rule 1.3)
+                synchronized (this) {
+                    if (cancelled || error != null) {
+                        return;
+                    }
+                    error = new IllegalArgumentException("Demand must be positive. Provided: " + n);
+                }
+                subscriptions.remove(this);
+                schedule();
+                return;
+            }
+            synchronized (this) {
+                demand = demand + n < 0 ? Long.MAX_VALUE : demand + n; // saturate, per Flow rules
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                cancelled = true;
+            }
+            subscriptions.remove(this);
+        }
+
+        // Runs a drain on the executor unless one is already running
+        void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this);
+                } catch (RuntimeException e) {
+                    draining.set(false);
+                    cancel();
+                    subscriber.onError(e);
+                }
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (true) {
+                    TallyUpdate update = null;
+                    boolean finish = false;
+                    Throwable failure = null;
+                    synchronized (this) {
+                        if (cancelled) {
+                            return;
+                        }
+                        if (error != null) {
+                            cancelled = true;
+                            failure = error;
+                        } else if (hasPending && demand > 0) {
+                            update = takePending();
+                            demand--;
+                        } else if (completing && !hasPending) {
+                            cancelled = true;
+                            finish = true;
+                        } else {
+                            return;
+                        }
+                    }
+                    if (failure != null) {
+                        subscriber.onError(failure);
+                        return;
+                    }
+                    if (finish) {
+                        subscriptions.remove(this);
+                        subscriber.onComplete();
+                        return;
+                    }
+                    subscriber.onNext(update);
+                }
+            } finally {
+                draining.set(false);
+                // Work may have arrived between the last check and releasing the flag
+                boolean more;
+                synchronized (this) {
+                    more = !cancelled
+                            && (error != null || (hasPending && demand > 0) || (completing && !hasPending));
+                }
+                if (more) {
+                    schedule();
+                }
+            }
+        }
+
+        // Called with this held
+        private TallyUpdate takePending() {
+            int[] candidates = Arrays.copyOf(pendingCandidates, pendingCount);
+            Arrays.sort(candidates);
+            long[] deltas = new long[pendingCount];
+            for (int i = 0; i < candidates.length; i++) {
+                int c = candidates[i];
+                deltas[i] = pending[c];
+                pending[c] = 0;
+                marked[c] = false;
+            }
+            TallyUpdate update = new TallyUpdate(pendingSequence, pendingSnapshot, candidates, deltas);
+            pendingCount = 0;
+            pendingSnapshot = false;
+            hasPending = false;
+            return update;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package maintainability;
+
+import java.util.Arrays;
+
+// One message of a TallyStream. A snapshot update carries the full count of every
+// candidate; a delta update carries only the candidates that changed and by how
+// much since the previous message to the same subscriber. Applying them in order
+// (reset on a snapshot, then add) reproduces the tally.
+final class TallyUpdate {
+    private final long sequence;
+    private final boolean snapshot;
+    private final int[] candidates;
+    private final long[] deltas;
+
+    TallyUpdate(long sequence, boolean snapshot, int[] candidates, long[] deltas) {
+        this.sequence = sequence;
+        this.snapshot = snapshot;
+        this.candidates = candidates;
+        this.deltas = deltas;
+    }
+
+    // Stream tick this update brings the subscriber up to
+    long getSequence() {
+        return sequence;
+    }
+
+    boolean isSnapshot() {
+        return snapshot;
+    }
+
+    int size() {
+        return candidates.length;
+    }
+
+    int getCandidate(int i) {
+        return candidates[i];
+    }
+
+    long getDelta(int i) {
+        return deltas[i];
+    }
+
+    // Applies this update to counts indexed by candidate
+    void applyTo(long[] counts) {
+        if (snapshot) {
+            Arrays.fill(counts, 0);
+        }
+        for (int i = 0; i < candidates.length; i++) {
+            counts[candidates[i]] += deltas[i];
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder(snapshot ? "snapshot #" : "delta #").append(sequence).append(" {");
+        for (int i = 0; i < candidates.length; i++) {
+            text.append(i == 0 ? "" : ", ").append(candidates[i]).append(snapshot ? "=" : "+").append(deltas[i]);
+        }
+        return text.append('}').toString();
+    }
+}
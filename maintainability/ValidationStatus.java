@@ -0,0 +1,32 @@
+package maintainability;
+
+// Result codes for PinValidationService, replacing the strings returned by
+// Question04.validatePerson. getMessage() keeps the original wording for
+// callers that still need the text; UNKNOWN_PERSON has no original wording, as
+// the original code had no credential store.
+enum ValidationStatus {
+    // Codes are explicit so reordering or inserting constants never changes them
+    SUCCESS(0, "Person validation successful"),
+    SYSTEM_DOWN(1, "System is Down"),
+    INVALID_NAME(2, "Invalid name"),
+    UNKNOWN_PERSON(3, "Unknown person"),
+    INVALID_PIN(4, "Invalid Pin"),
+    LOCKED_OUT(5, "Too many failed attempts");
+
+    private final int code;
+    private final String message;
+
+    ValidationStatus(int code, String message) {
+        this.code = code;
+        this.message = message;
+    }
+
+    String getMessage() {
+        return message;
+    }
+
+    // Stable int code for callers that store or transmit the result
+    int getCode() {
+        return code;
+    }
+}
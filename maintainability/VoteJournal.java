@@ -0,0 +1,346 @@
+package maintainability;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32C;
+
+// Durable, append-only journal of accepted votes in front of a VoteTally, so
+// votes cast through RegisteredVoter survive a crash.
+//
+// File layout: an 8-byte header (magic, version), then one 12-byte record per
+// vote: voter id, candidate and a CRC32C of the two. On open the journal is
+// replayed into the tally; a torn or corrupt tail (a crash mid-write) is cut off
+// at the last good record.
+//
+// Group commit: vote() claims the voter in the tally, appends its record to a
+// shared buffer and waits. A single committer thread writes everything buffered
+// and makes it durable with one force() per batch, then releases every waiter of
+// that batch. The commit window is the latency/throughput knob: after the first
+// record of a batch arrives, the committer waits up to windowMicros (or until
+// maxBatch records are buffered) before writing. 0 commits as soon as the
+// previous force() returns, which still batches whatever arrived during it.
+//
+// vote() returns only once its record is on disk, and only then counts it in the
+// tally, so a snapshot never includes a vote that is not durable. If the journal
+// is closed or has failed, the voter's claim is released and vote() throws, so
+// the voter can vote again once the journal is back. A failed force() may still
+// have left the record on disk; replay then counts it, and a later retry of the
+// same voter is journalled again but skipped as ALREADY_VOTED on replay.
+final class VoteJournal implements AutoCloseable {
+
+    static final int RECORD_BYTES = 12;
+    private static final int MAGIC = 0x564F544A; // "VOTJ"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+
+    private final FileChannel channel;
+    private final VoteTally tally;
+    private final long windowNanos;
+    private final long replayed;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition pending = lock.newCondition();
+    private final Condition durable = lock.newCondition();
+    private final Condition space = lock.newCondition();
+    private final CRC32C crc = new CRC32C(); // guarded by lock
+    private final ByteBuffer crcInput = ByteBuffer.allocate(8); // guarded by lock
+    private ByteBuffer filling;
+    private ByteBuffer writing;
+    private long appendedSequence; // records buffered so far
+    private long durableSequence; // records known to be on disk
+    // Written under lock; volatile for the unlocked early check in vote()
+    private volatile IOException failure;
+    private volatile boolean closed;
+
+    private final Thread committer;
+    private long batches;
+    private long forceNanos;
+
+    private VoteJournal(FileChannel channel, VoteTally tally, long windowMicros, int maxBatch, long replayed) {
+        this.channel = channel;
+        this.tally = tally;
+        this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+        this.replayed = replayed;
+        this.filling = ByteBuffer.allocateDirect(maxBatch * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.writing = ByteBuffer.allocateDirect(maxBatch * RECORD_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        this.committer = new Thread(this::runCommitter, "vote-journal-committer");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    // Opens or creates the journal at file and replays it into tally
+    static VoteJournal open(Path file, VoteTally tally, long windowMicros, int maxBatch) throws IOException {
+        if (windowMicros < 0) {
+            throw new IllegalArgumentException("Commit window cannot be negative. Provided: " + windowMicros);
+        }
+        if (maxBatch <= 0) {
+            throw new IllegalArgumentException("Max batch must be positive. Provided: " + maxBatch);
+        }
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            long replayed = replay(channel, tally);
+            return new VoteJournal(channel, tally, windowMicros, maxBatch, replayed);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // As VoteTally.rejectUnregistered: a NonVoter never reaches the journal
+    VoteTally.VoteResult rejectUnregistered() {
+        return tally.rejectUnregistered();
+    }
+
+    // Records the vote and returns once it is durable. Only ACCEPTED votes are
+    // journalled; duplicates and invalid votes return straight away. Throws,
+    // leaving the voter unclaimed, if the record cannot be made durable.
+    VoteTally.VoteResult vote(int voterId, int candidate) throws IOException {
+        checkUsable(); // before claiming, so a closed journal never takes a vote
+        VoteTally.VoteResult result = tally.claim(voterId, candidate);
+        if (result != VoteTally.VoteResult.ACCEPTED) {
+            return result;
+        }
+        boolean committed = false;
+        try {
+            append(voterId, candidate);
+            committed = true;
+        } finally {
+            if (!committed) {
+                tally.release(voterId);
+            }
+        }
+        tally.count(candidate);
+        return result;
+    }
+
+    // Records counted in the tally when the journal was opened (records the tally
+    // refused, such as a voter journalled twice, are not included)
+    long getReplayedCount() {
+        return replayed;
+    }
+
+    long getDurableCount() {
+        lock.lock();
+        try {
+            return durableSequence;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getBatchCount() {
+        lock.lock();
+        try {
+            return batches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    double getAverageBatchSize() {
+        lock.lock();
+        try {
+            return batches == 0 ? 0 : (double) durableSequence / batches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long getAverageForceNanos() {
+        lock.lock();
+        try {
+            return batches == 0 ? 0 : forceNanos / batches;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Commits what is buffered, then closes the file
+    @Override
+    public void close() throws IOException {
+        lock.lock();
+        try {
+            closed = true;
+            pending.signal();
+            space.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            committer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while closing the vote journal");
+        } finally {
+            channel.close();
+        }
+    }
+
+    // Buffers the record and waits until the committer has forced it to disk
+    private void append(int voterId, int candidate) throws IOException {
+        lock.lock();
+        try {
+            while (!filling.hasRemaining() && failure == null && !closed) {
+                space.awaitUninterruptibly();
+            }
+            checkUsable();
+            crcInput.clear();
+            crcInput.putInt(voterId).putInt(candidate).flip();
+            crc.reset();
+            crc.update(crcInput);
+            filling.putInt(voterId).putInt(candidate).putInt((int) crc.getValue());
+            long sequence = ++appendedSequence;
+            pending.signal();
+            while (durableSequence < sequence && failure == null) {
+                durable.awaitUninterruptibly();
+            }
+            if (durableSequence < sequence) {
+                throw new IOException("Vote journal failed; vote not durable", failure);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void checkUsable() throws IOException {
+        if (failure != null) {
+            throw new IOException("Vote journal failed", failure);
+        }
+        if (closed) {
+            throw new IOException("Vote journal is closed");
+        }
+    }
+
+    private void runCommitter() {
+        while (true) {
+            long upTo;
+            lock.lock();
+            try {
+                while (filling.position() == 0 && !closed) {
+                    pending.awaitUninterruptibly();
+                }
+                if (filling.position() == 0) {
+                    return; // closed and drained
+                }
+                // Commit window: let more votes join this batch
+                long deadline = System.nanoTime() + windowNanos;
+                long remaining;
+                while (filling.hasRemaining() && !closed && (remaining = deadline - System.nanoTime()) > 0) {
+                    try {
+                        pending.awaitNanos(remaining);
+                    } catch (InterruptedException e) {
+                        break;
+                    }
+                }
+                ByteBuffer full = filling;
+                filling = writing;
+                writing = full;
+                upTo = appendedSequence;
+                space.signalAll();
+            } finally {
+                lock.unlock();
+            }
+
+            IOException error = null;
+            long start = System.nanoTime();
+            try {
+                writing.flip();
+                while (writing.hasRemaining()) {
+                    channel.write(writing);
+                }
+                channel.force(false);
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                writing.clear();
+            }
+            long elapsed = System.nanoTime() - start;
+
+            lock.lock();
+            try {
+                if (error != null) {
+                    failure = error;
+                    space.signalAll();
+                    durable.signalAll();
+                    return;
+                }
+                durableSequence = upTo;
+                batches++;
+                forceNanos += elapsed;
+                durable.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    // Validates the header, feeds every intact record to the tally and truncates
+    // a torn tail; leaves the channel positioned for appending. Returns the number
+    // of records the tally accepted.
+    private static long replay(FileChannel channel, VoteTally tally) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        if (channel.size() < HEADER_BYTES) {
+            channel.truncate(0);
+            header.putInt(MAGIC).putInt(VERSION).flip();
+            channel.write(header, 0);
+            channel.force(true);
+            channel.position(HEADER_BYTES);
+            return 0;
+        }
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC || header.getInt() != VERSION) {
+            throw new IOException("Not a vote journal (bad magic or version)");
+        }
+
+        CRC32C check = new CRC32C();
+        ByteBuffer checkInput = ByteBuffer.allocate(8);
+        ByteBuffer chunk = ByteBuffer.allocateDirect(RECORD_BYTES * 8192).order(ByteOrder.LITTLE_ENDIAN);
+        long position = HEADER_BYTES;
+        long records = 0;
+        boolean intact = true;
+        while (intact) {
+            chunk.clear();
+            int read = channel.read(chunk, position);
+            if (read <= 0) {
+                break;
+            }
+            chunk.flip();
+            while (chunk.remaining() >= RECORD_BYTES) {
+                int voterId = chunk.getInt();
+                int candidate = chunk.getInt();
+                int stored = chunk.getInt();
+                checkInput.clear();
+                checkInput.putInt(voterId).putInt(candidate).flip();
+                check.reset();
+                check.update(checkInput);
+                if ((int) check.getValue() != stored) {
+                    intact = false;
+                    break;
+                }
+                if (tally.cast(voterId, candidate) == VoteTally.VoteResult.ACCEPTED) {
+                    records++;
+                }
+                position += RECORD_BYTES;
+            }
+            if (read < chunk.capacity() && chunk.remaining() < RECORD_BYTES) {
+                break; // end of file, possibly with a partial record
+            }
+        }
+        if (position < channel.size()) {
+            channel.truncate(position); // torn or corrupt tail from a crash
+            channel.force(true);
+        }
+        channel.position(position);
+        return records;
+    }
+}
@@ -0,0 +1,75 @@
+package maintainability;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Durable votes/s and commit latency (p50, p99) of VoteJournal for several
+// commit windows, with many concurrent voters. Wider windows put more votes in
+// each force() (higher throughput) at the price of latency. Run it on the disk
+// the journal will live on: force() cost is the whole story.
+// Run: java maintainability.VoteJournalBenchmark [threads] [votesPerThread] [dir]
+class VoteJournalBenchmark {
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 32;
+        int votesPerThread = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        Path dir = args.length > 2 ? Path.of(args[2]) : Path.of(System.getProperty("java.io.tmpdir"));
+
+        for (long windowMicros : new long[] { 0, 100, 500, 2_000 }) {
+            Path file = Files.createTempFile(dir, "votes", ".journal");
+            Files.delete(file);
+            VoteTally tally = new VoteTally(8, threads * votesPerThread);
+            long[][] latencies = new long[threads][votesPerThread];
+            AtomicInteger nextThread = new AtomicInteger();
+            CountDownLatch start = new CountDownLatch(1);
+            CountDownLatch done = new CountDownLatch(threads);
+
+            long elapsed;
+            try (VoteJournal journal = VoteJournal.open(file, tally, windowMicros, 4096)) {
+                for (int t = 0; t < threads; t++) {
+                    Thread voter = new Thread(() -> {
+                        int index = nextThread.getAndIncrement();
+                        long[] mine = latencies[index];
+                        try {
+                            start.await();
+                            for (int i = 0; i < votesPerThread; i++) {
+                                int voterId = index * votesPerThread + i;
+                                long begin = System.nanoTime();
+                                journal.vote(voterId, voterId & 7);
+                                mine[i] = System.nanoTime() - begin;
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        } finally {
+                            done.countDown();
+                        }
+                    });
+                    voter.setDaemon(true);
+                    voter.start();
+                }
+                long begin = System.nanoTime();
+                start.countDown();
+                done.await();
+                elapsed = System.nanoTime() - begin;
+                System.out.printf("window %5d us  %10.0f votes/s  p50 %7.0f us  p99 %7.0f us  batch %6.1f  force %6.0f us%n",
+                        windowMicros, threads * (double) votesPerThread * 1e9 / elapsed,
+                        percentile(latencies, 0.50) / 1e3, percentile(latencies, 0.99) / 1e3,
+                        journal.getAverageBatchSize(), journal.getAverageForceNanos() / 1e3);
+            } finally {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static double percentile(long[][] samples, double p) {
+        long[] all = Arrays.stream(samples).flatMapToLong(Arrays::stream).sorted().toArray();
+        return all[(int) Math.min(all.length - 1, Math.round(p * (all.length - 1)))];
+    }
+}
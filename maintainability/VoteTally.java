@@ -0,0 +1,236 @@
+package maintainability;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+
+// Election-night tally behind RegisteredVoter.vote.
+// Each vote does three things, none of which takes a lock:
+//   1. rejects anything that is not a RegisteredVoter by type, before touching
+//      shared state (so a NonVoter can never claim a bit or a counter). The
+//      check lives with the citizen types in RegisteredVoter.vote, which calls
+//      rejectUnregistered() here;
+//   2. claims the voter's bit in a fixed-size long[] bitmap with one atomic OR,
+//      so each voter id is counted at most once;
+//   3. increments the candidate's counter in the caller's stripe. Stripes are
+//      padded rows of one long[], chosen by thread, so concurrent voters rarely
+//      write the same cache line (the LongAdder idea, applied to a whole row of
+//      candidates).
+// VoteJournal runs steps 1-2 (claim) and step 3 (count) separately, so a vote is
+// counted only once it is durable and a claim whose record could not be written
+// is released again.
+//
+// Snapshots do not normally stop writers. Each stripe row also counts votes
+// started and votes finished; a stripe is read as finished -> counters -> started
+// and re-read if a vote was in flight in between. Every vote is therefore either
+// fully in a snapshot or not at all, the per-candidate counts add up to the
+// snapshot total, and counts never go backwards from one snapshot to the next.
+// A stripe so busy that MAX_SNAPSHOT_RETRIES reads in a row all overlap a vote
+// is gated: new votes on it wait while the votes already in flight finish and
+// the row is read once more, so a snapshot always ends (TallyStream takes them
+// on its ticker thread).
+final class VoteTally {
+
+    enum VoteResult {
+        ACCEPTED,
+        ALREADY_VOTED,
+        NOT_REGISTERED, // not a RegisteredVoter (for example a NonVoter)
+        INVALID_VOTER, // voter id outside the bitmap
+        INVALID_CANDIDATE
+    }
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private static final int STARTED = 0;
+    private static final int FINISHED = 1;
+    private static final int GATE = 2; // snapshots currently holding new votes off the row
+    private static final int HEADER = 3;
+    private static final int PAD = 8; // one 64-byte line between rows
+    private static final int MAX_SNAPSHOT_RETRIES = 64;
+
+    private final int candidates;
+    private final int maxVoters;
+    private final long[] voted;
+    private final long[] stripes;
+    private final int stripeMask;
+    private final int rowLength;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder snapshotRetries = new LongAdder();
+    private final LongAdder snapshotGates = new LongAdder();
+
+    // voter ids run from 0 to maxVoters - 1; stripes must be a power of two
+    VoteTally(int candidates, int maxVoters, int stripes) {
+        if (candidates <= 0) {
+            throw new IllegalArgumentException("Candidates must be positive. Provided: " + candidates);
+        }
+        if (maxVoters <= 0) {
+            throw new IllegalArgumentException("Max voters must be positive. Provided: " + maxVoters);
+        }
+        if (Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("Stripes must be a power of two. Provided: " + stripes);
+        }
+        this.candidates = candidates;
+        this.maxVoters = maxVoters;
+        this.voted = new long[(maxVoters + 63) >>> 6];
+        // Row = header + counters, rounded up to whole cache lines, plus one spare line
+        this.rowLength = ((HEADER + candidates + PAD - 1) / PAD + 1) * PAD;
+        this.stripes = new long[stripes * rowLength + PAD];
+        this.stripeMask = stripes - 1;
+    }
+
+    // Stripes sized for the machine: twice the core count, as a power of two
+    VoteTally(int candidates, int maxVoters) {
+        this(candidates, maxVoters, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2 - 1) << 1);
+    }
+
+    // Counts a vote from a citizen that is not a RegisteredVoter (RegisteredVoter.vote
+    // checks the type); the bitmap and the counters are never touched
+    VoteResult rejectUnregistered() {
+        rejected.increment();
+        return VoteResult.NOT_REGISTERED;
+    }
+
+    VoteResult cast(int voterId, int candidate) {
+        VoteResult result = claim(voterId, candidate);
+        if (result == VoteResult.ACCEPTED) {
+            count(candidate);
+        }
+        return result;
+    }
+
+    // Validates the vote and claims the voter's bit without counting it. ACCEPTED
+    // must be followed by count(candidate), or by release(voterId) if the vote is
+    // abandoned.
+    VoteResult claim(int voterId, int candidate) {
+        if (voterId < 0 || voterId >= maxVoters) {
+            rejected.increment();
+            return VoteResult.INVALID_VOTER;
+        }
+        if (candidate < 0 || candidate >= candidates) {
+            rejected.increment();
+            return VoteResult.INVALID_CANDIDATE; // checked before the bit is claimed, so the voter can retry
+        }
+        long bit = 1L << voterId;
+        long previous = (long) LONGS.getAndBitwiseOr(voted, voterId >>> 6, bit);
+        if ((previous & bit) != 0) {
+            duplicates.increment();
+            return VoteResult.ALREADY_VOTED;
+        }
+        return VoteResult.ACCEPTED;
+    }
+
+    // Counts a vote claimed with claim()
+    void count(int candidate) {
+        if (candidate < 0 || candidate >= candidates) {
+            throw new IllegalArgumentException("Candidate out of range. Provided: " + candidate);
+        }
+        int row = rowOffset();
+        while ((long) LONGS.getVolatile(stripes, row + GATE) != 0) {
+            Thread.onSpinWait(); // a snapshot is finishing its read of this row
+        }
+        LONGS.getAndAdd(stripes, row + STARTED, 1L);
+        LONGS.getAndAdd(stripes, row + HEADER + candidate, 1L);
+        LONGS.getAndAdd(stripes, row + FINISHED, 1L);
+    }
+
+    // Gives back a claimed but uncounted voter, who may then vote again
+    void release(int voterId) {
+        if (voterId < 0 || voterId >= maxVoters) {
+            throw new IllegalArgumentException("Voter id out of range. Provided: " + voterId);
+        }
+        LONGS.getAndBitwiseAnd(voted, voterId >>> 6, ~(1L << voterId));
+    }
+
+    boolean hasVoted(int voterId) {
+        if (voterId < 0 || voterId >= maxVoters) {
+            return false;
+        }
+        return ((long) LONGS.getVolatile(voted, voterId >>> 6) & (1L << voterId)) != 0;
+    }
+
+    TallySnapshot snapshot() {
+        long[] counts = new long[candidates];
+        long[] row = new long[candidates];
+        int stripeCount = stripeMask + 1;
+        for (int stripe = 0; stripe < stripeCount; stripe++) {
+            int offset = PAD + stripe * rowLength;
+            if (!readRow(offset, row, MAX_SNAPSHOT_RETRIES)) {
+                // Votes that passed the gate before it closed finish; no new ones start
+                snapshotGates.increment();
+                LONGS.getAndAdd(stripes, offset + GATE, 1L);
+                try {
+                    readRow(offset, row, Integer.MAX_VALUE);
+                } finally {
+                    LONGS.getAndAdd(stripes, offset + GATE, -1L);
+                }
+            }
+            for (int c = 0; c < candidates; c++) {
+                counts[c] += row[c];
+            }
+        }
+        return new TallySnapshot(counts, System.nanoTime());
+    }
+
+    int getCandidateCount() {
+        return candidates;
+    }
+
+    int getMaxVoters() {
+        return maxVoters;
+    }
+
+    // Votes refused before reaching shared state (wrong type, bad voter id or candidate)
+    long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    long getDuplicateCount() {
+        return duplicates.sum();
+    }
+
+    // Stripe re-reads caused by votes in flight; high values mean snapshots are
+    // taken more often than the stripes are quiet
+    long getSnapshotRetryCount() {
+        return snapshotRetries.sum();
+    }
+
+    // Snapshots that had to hold votes off a stripe to finish reading it
+    long getSnapshotGateCount() {
+        return snapshotGates.sum();
+    }
+
+    // Heap bytes of the bitmap and the stripe rows
+    long getFootprintBytes() {
+        return (long) (voted.length + stripes.length) * Long.BYTES;
+    }
+
+    // Reads the counters of the row at offset into row; false if every one of
+    // maxAttempts reads overlapped a vote
+    private boolean readRow(int offset, long[] row, int maxAttempts) {
+        for (int attempt = 0; attempt < maxAttempts; attempt++) {
+            if (attempt > 0) {
+                snapshotRetries.increment();
+                Thread.onSpinWait();
+            }
+            long finished = (long) LONGS.getVolatile(stripes, offset + FINISHED);
+            for (int c = 0; c < candidates; c++) {
+                row[c] = (long) LONGS.getVolatile(stripes, offset + HEADER + c);
+            }
+            long started = (long) LONGS.getVolatile(stripes, offset + STARTED);
+            if (started == finished) {
+                return true; // no vote was in flight in this stripe while it was read
+            }
+        }
+        return false;
+    }
+
+    // Offset of the calling thread's stripe row; the first PAD longs keep row 0
+    // off the array header's cache line
+    private int rowOffset() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 16)) * 0x9E3779B9;
+        return PAD + ((hash >>> 16) & stripeMask) * rowLength;
+    }
+}
@@ -0,0 +1,51 @@
+package maintainability;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Votes per second through VoteTally at 1, 8 and 32 threads, each vote from a
+// distinct voter (so every vote claims a bit and bumps a counter), with a
+// snapshot taken concurrently from another thread to show writers are not held up.
+// Run: java maintainability.VoteTallyBenchmark [votesPerThread]
+class VoteTallyBenchmark {
+
+    private static final int CANDIDATES = 8;
+
+    public static void main(String[] args) throws InterruptedException {
+        int votesPerThread = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+
+        for (int threads : new int[] { 1, 8, 32 }) {
+            int rounds = Benchmarks.WARMUP_ROUNDS + Benchmarks.MEASURED_ROUNDS;
+            VoteTally tally = new VoteTally(CANDIDATES, votesPerThread * threads * rounds);
+            AtomicInteger nextRange = new AtomicInteger();
+
+            Thread snapshotter = new Thread(() -> {
+                long snapshots = 0;
+                while (!Thread.currentThread().isInterrupted()) {
+                    Benchmarks.sink = tally.snapshot().getTotal();
+                    snapshots++;
+                }
+                Benchmarks.sink = snapshots;
+            });
+            snapshotter.setDaemon(true);
+            snapshotter.start();
+
+            Benchmarks.measureConcurrent("cast(voterId, candidate)", threads, votesPerThread, () -> {
+                int first = nextRange.getAndIncrement() * votesPerThread;
+                long accepted = 0;
+                for (int i = 0; i < votesPerThread; i++) {
+                    int voterId = first + i;
+                    if (tally.cast(voterId, voterId % CANDIDATES) == VoteTally.VoteResult.ACCEPTED) {
+                        accepted++;
+                    }
+                }
+                Benchmarks.sink = accepted;
+            });
+
+            snapshotter.interrupt();
+            snapshotter.join();
+            TallySnapshot result = tally.snapshot();
+            System.out.printf("  total=%d snapshot retries=%d gates=%d%n", result.getTotal(),
+                    tally.getSnapshotRetryCount(), tally.getSnapshotGateCount());
+        }
+    }
+}